@@ -0,0 +1,34 @@
+package com.example.docservice.config;
+
+import com.example.docservice.dto.DataQuery;
+import com.example.docservice.exception.InvalidQueryException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Binds the JSON {@code query} request parameter, sent either as a form field or as a
+ * multipart part, to a {@link DataQuery}.
+ */
+@Component
+public class DataQueryConverter implements Converter<String, DataQuery> {
+
+    private final ObjectMapper objectMapper;
+
+    public DataQueryConverter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public DataQuery convert(String source) {
+        if (source.isBlank()) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(source, DataQuery.class);
+        } catch (JsonProcessingException e) {
+            throw new InvalidQueryException("Query is not valid JSON: " + e.getOriginalMessage());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.docservice.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Logs how long the first API request took, which is where cold-start costs show up.
+ * Compare it against later requests with and without warm-up or the CDS archive.
+ * Swagger UI, API docs and static resources are skipped so they can't claim the first request.
+ */
+@Slf4j
+@Component
+public class FirstRequestLatencyFilter extends OncePerRequestFilter {
+
+    private final AtomicBoolean firstRequestLogged = new AtomicBoolean();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (firstRequestLogged.get()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (firstRequestLogged.compareAndSet(false, true)) {
+                log.info("First request {} {} served in {} ms ({} ms after JVM start)",
+                        request.getMethod(), request.getRequestURI(),
+                        (System.nanoTime() - start) / 1_000_000,
+                        ManagementFactory.getRuntimeMXBean().getUptime());
+            }
+        }
+    }
+}
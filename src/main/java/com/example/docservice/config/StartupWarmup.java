@@ -0,0 +1,181 @@
+package com.example.docservice.config;
+
+import com.example.docservice.dto.*;
+import com.example.docservice.service.ExcelService;
+import com.example.docservice.util.CsvParserUtil;
+import com.example.docservice.util.ExcelParserUtil;
+import com.example.docservice.util.PdfGeneratorUtil;
+import com.example.docservice.util.StreamingXlsxWriter;
+import com.example.docservice.util.WorkbookInspectorUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Runs a small synthetic parse, render and write once all beans exist but before the web server
+ * starts accepting connections, so class loading, PDFBox font metrics and early JIT
+ * compilation are paid for during startup instead of by the first real requests.
+ * It also runs during the AppCDS training run, which puts those classes in the archive.
+ */
+@Slf4j
+@Component
+public class StartupWarmup implements SmartInitializingSingleton {
+
+    private static final int SAMPLE_ROWS = 50;
+
+    private final ObjectMapper objectMapper;
+    private final ExcelService excelService;
+
+    @Value("${docservice.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${docservice.warmup.iterations:3}")
+    private int iterations;
+
+    public StartupWarmup(ObjectMapper objectMapper, ExcelService excelService) {
+        this.objectMapper = objectMapper;
+        this.excelService = excelService;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            byte[] xlsx = createSampleWorkbook(new XSSFWorkbook());
+            byte[] xls = createSampleWorkbook(new HSSFWorkbook());
+            byte[] csv = createSampleCsv();
+            List<DataQuery> queries = createSampleQueries();
+
+            for (int i = 0; i < iterations; i++) {
+                warmUp(xlsx, "warmup.xlsx", queries);
+                warmUp(xls, "warmup.xls", queries);
+                warmUpCsv(csv, queries);
+            }
+            log.info("Startup warm-up finished in {} ms ({} iterations)",
+                    (System.nanoTime() - start) / 1_000_000, iterations);
+        } catch (Exception e) {
+            // A failed warm-up only costs latency, it must never block startup
+            log.warn("Startup warm-up failed, first requests will run cold", e);
+        }
+    }
+
+    private void warmUp(byte[] workbook, String filename, List<DataQuery> queries) throws IOException {
+        // Completed uploads are inspected, parsed and queried in place on disk, so warm up the same path
+        Path file = Files.createTempFile("warmup-", filename);
+        try {
+            Files.write(file, workbook);
+            WorkbookInspectorUtil.inspectWorkbook(file, filename);
+            for (DataQuery query : queries) {
+                excelService.parseExcelFile(file, filename, query);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        List<ExcelRowData> rows = ExcelParserUtil.parseExcel(new ByteArrayInputStream(workbook), filename);
+        objectMapper.writeValueAsBytes(rows);
+        PdfGeneratorUtil.generatePdfFromExcelData("Warm-up", rows);
+    }
+
+    private void warmUpCsv(byte[] csv, List<DataQuery> queries) throws IOException {
+        Path file = Files.createTempFile("warmup-", ".csv");
+        try {
+            Files.write(file, csv);
+            for (DataQuery query : queries) {
+                excelService.parseExcelFile(file, "warmup.csv", query);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        List<ExcelRowData> rows = CsvParserUtil.parseCsv(new ByteArrayInputStream(csv));
+        objectMapper.writeValueAsBytes(rows);
+
+        try (StreamingXlsxWriter writer = new StreamingXlsxWriter("Warm-up", SAMPLE_ROWS / 2, false)) {
+            rows.forEach(writer::writeRow);
+            writer.writeTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    // One grouped query and one top-N query, the two ways RowQueryProcessor reduces rows
+    private List<DataQuery> createSampleQueries() {
+        DataQuery grouped = new DataQuery();
+        grouped.setFilters(List.of(new QueryFilter("Amount", QueryFilter.Operator.GT, "5")));
+        grouped.setGroupBy(List.of("Active"));
+        grouped.setAggregates(List.of(
+                new QueryAggregate(QueryAggregate.Function.SUM, "Amount", null),
+                new QueryAggregate(QueryAggregate.Function.AVG, "Price", null),
+                new QueryAggregate(QueryAggregate.Function.COUNT, null, null),
+                new QueryAggregate(QueryAggregate.Function.MAX, "Date", null)
+        ));
+        grouped.setSort(List.of(new QuerySort("sum(Amount)", QuerySort.Direction.DESC)));
+
+        DataQuery topRows = new DataQuery();
+        topRows.setFilters(List.of(new QueryFilter("Name", QueryFilter.Operator.CONTAINS, "item")));
+        topRows.setSort(List.of(new QuerySort("Price", QuerySort.Direction.DESC)));
+        topRows.setLimit(10);
+
+        return List.of(grouped, topRows);
+    }
+
+    private byte[] createSampleCsv() {
+        StringBuilder csv = new StringBuilder("Name,Amount,Price,Active,Date,Notes\n");
+        for (int i = 1; i <= SAMPLE_ROWS; i++) {
+            csv.append("Item ").append(i).append(',')
+                    .append(i).append(',')
+                    .append(i * 1.25).append(',')
+                    .append(i % 2 == 0).append(',')
+                    .append("2024-01-15T10:30:00").append(',')
+                    .append("\"Quoted, \"\"note\"\"\"\n");
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] createSampleWorkbook(Workbook workbook) throws IOException {
+        try (workbook; ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+            Sheet sheet = workbook.createSheet("Warm-up");
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+
+            Row header = sheet.createRow(0);
+            String[] headers = {"Name", "Amount", "Price", "Active", "Date", "Total"};
+            for (int i = 0; i < headers.length; i++) {
+                header.createCell(i).setCellValue(headers[i]);
+            }
+
+            Date today = new Date();
+            for (int i = 1; i <= SAMPLE_ROWS; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue("Item " + i);
+                row.createCell(1).setCellValue(i);
+                row.createCell(2).setCellValue(i * 1.25);
+                row.createCell(3).setCellValue(i % 2 == 0);
+                Cell dateCell = row.createCell(4);
+                dateCell.setCellValue(today);
+                dateCell.setCellStyle(dateStyle);
+                row.createCell(5).setCellFormula("B" + (i + 1) + "*C" + (i + 1));
+            }
+
+            workbook.write(outputStream);
+            return outputStream.toByteArray();
+        }
+    }
+}
@@ -1,33 +1,83 @@
 package com.example.docservice.controller;
 
+import com.example.docservice.dto.DataQuery;
 import com.example.docservice.dto.ExcelUploadResponse;
+import com.example.docservice.dto.WorkbookInspectionResponse;
 import com.example.docservice.service.ExcelService;
+import com.example.docservice.service.ExcelWriterService;
+import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/excel")
 @Tag(name = "Excel Operations", description = "APIs for Excel file operations")
 public class ExcelController {
 
+    private static final String XLSX_CONTENT_TYPE =
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
     private final ExcelService excelService;
+    private final ExcelWriterService excelWriterService;
 
-    public ExcelController(ExcelService excelService) {
+    public ExcelController(ExcelService excelService, ExcelWriterService excelWriterService) {
         this.excelService = excelService;
+        this.excelWriterService = excelWriterService;
     }
 
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ExcelUploadResponse> uploadExcelFile(
-            @Parameter(description = "Excel file to upload (.xlsx or .xls)", required = true)
-            @RequestParam("file") MultipartFile file) {
+            @Parameter(description = "Excel or CSV file to upload (.xlsx, .xls or .csv)", required = true)
+            @RequestParam("file") MultipartFile file,
+            @Parameter(description = "Optional JSON query with filters, groupBy, aggregates, sort and limit")
+            @RequestParam(value = "query", required = false) DataQuery query) {
         
-        ExcelUploadResponse response = excelService.parseExcelFile(file);
+        ExcelUploadResponse response = excelService.parseExcelFile(file, query);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @PostMapping(value = "/inspect", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Read sheet names, dimensions and header rows without parsing cell data")
+    public ResponseEntity<WorkbookInspectionResponse> inspectExcelFile(
+            @Parameter(description = "Excel file to inspect (.xlsx or .xls)", required = true)
+            @RequestParam("file") MultipartFile file) {
+
+        WorkbookInspectionResponse response = excelService.inspectExcelFile(file);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    @PostMapping(value = "/generate",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = XLSX_CONTENT_TYPE)
+    @Operation(summary = "Generate an .xlsx file from rows sent as a JSON array or as NDJSON")
+    public ResponseEntity<StreamingResponseBody> generateExcelFile(
+            @Parameter(description = "Name of the generated sheet")
+            @RequestParam(value = "sheetName", defaultValue = "Sheet1") String sheetName,
+            @Parameter(description = "Filename of the generated workbook")
+            @RequestParam(value = "filename", defaultValue = "data.xlsx") String filename,
+            @Parameter(description = "Header columns in order, defaults to the columns of the first row")
+            @RequestParam(value = "columns", required = false) List<String> columns,
+            InputStream rows) {
+
+        StreamingResponseBody body = excelWriterService.generateExcelFile(rows, sheetName, columns);
+
+        String xlsxFilename = filename.toLowerCase().endsWith(".xlsx") ? filename : filename + ".xlsx";
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(XLSX_CONTENT_TYPE));
+        headers.setContentDispositionFormData("attachment", xlsxFilename);
+
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
 }
@@ -1,7 +1,10 @@
 package com.example.docservice.controller;
 
+import com.example.docservice.dto.DataQuery;
 import com.example.docservice.service.PdfService;
+import com.example.docservice.util.FilenameUtil;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -22,16 +25,16 @@ public class PdfController {
     }
 
     @PostMapping(value = "/generate-from-excel", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    @Operation(summary = "Convert Excel file to PDF")
-    public ResponseEntity<byte[]> generatePdfFromExcel(@RequestParam("file") MultipartFile file) {
+    @Operation(summary = "Convert Excel or CSV file to PDF")
+    public ResponseEntity<byte[]> generatePdfFromExcel(
+            @RequestParam("file") MultipartFile file,
+            @Parameter(description = "Optional JSON query with filters, groupBy, aggregates, sort and limit")
+            @RequestParam(value = "query", required = false) DataQuery query) {
         
-        byte[] pdfBytes = pdfService.generatePdfFromExcel(file);
+        byte[] pdfBytes = pdfService.generatePdfFromExcel(file, query);
         
         // Generate filename
-        String originalFilename = file.getOriginalFilename();
-        String pdfFilename = originalFilename != null 
-                ? originalFilename.replaceAll("\\.(xlsx|xls)$", ".pdf")
-                : "document.pdf";
+        String pdfFilename = FilenameUtil.toPdfFilename(file.getOriginalFilename());
         
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
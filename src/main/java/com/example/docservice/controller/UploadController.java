@@ -0,0 +1,124 @@
+package com.example.docservice.controller;
+
+import com.example.docservice.dto.DataQuery;
+import com.example.docservice.dto.ExcelUploadResponse;
+import com.example.docservice.dto.UploadCompleteRequest;
+import com.example.docservice.dto.UploadSessionRequest;
+import com.example.docservice.dto.UploadSessionResponse;
+import com.example.docservice.dto.WorkbookInspectionResponse;
+import com.example.docservice.service.ExcelService;
+import com.example.docservice.service.PdfService;
+import com.example.docservice.service.UploadSessionService;
+import com.example.docservice.util.FilenameUtil;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/v1/uploads")
+@Tag(name = "Chunked Uploads", description = "APIs for resumable chunked uploads of large files")
+public class UploadController {
+
+    private final UploadSessionService uploadSessionService;
+    private final ExcelService excelService;
+    private final PdfService pdfService;
+
+    public UploadController(UploadSessionService uploadSessionService, ExcelService excelService,
+                            PdfService pdfService) {
+        this.uploadSessionService = uploadSessionService;
+        this.excelService = excelService;
+        this.pdfService = pdfService;
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Open an upload session")
+    public ResponseEntity<UploadSessionResponse> createSession(@Valid @RequestBody UploadSessionRequest request) {
+
+        UploadSessionResponse response = uploadSessionService.createSession(request);
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    @PutMapping(value = "/{uploadId}/chunks/{chunkIndex}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "Upload one chunk, in any order and in parallel with other chunks")
+    public ResponseEntity<UploadSessionResponse> uploadChunk(@PathVariable String uploadId,
+                                                             @PathVariable int chunkIndex,
+                                                             InputStream body) {
+
+        UploadSessionResponse response = uploadSessionService.writeChunk(uploadId, chunkIndex, body);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @GetMapping("/{uploadId}")
+    @Operation(summary = "Get upload progress and the chunks still missing")
+    public ResponseEntity<UploadSessionResponse> getStatus(@PathVariable String uploadId) {
+
+        UploadSessionResponse response = uploadSessionService.getStatus(uploadId);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @PostMapping(value = "/{uploadId}/complete", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Finalize an upload after verifying its SHA-256 checksum")
+    public ResponseEntity<UploadSessionResponse> completeUpload(@PathVariable String uploadId,
+                                                                @Valid @RequestBody UploadCompleteRequest request) {
+
+        UploadSessionResponse response = uploadSessionService.completeUpload(uploadId, request.getChecksum());
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @PostMapping("/{uploadId}/inspect")
+    @Operation(summary = "Read sheet names, dimensions and header rows of a completed upload without parsing cell data")
+    public ResponseEntity<WorkbookInspectionResponse> inspectUpload(@PathVariable String uploadId) {
+        WorkbookInspectionResponse response = uploadSessionService.withCompletedUpload(uploadId,
+                upload -> excelService.inspectExcelFile(upload.file(), upload.filename()));
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @PostMapping("/{uploadId}/excel")
+    @Operation(summary = "Parse a completed upload to JSON")
+    public ResponseEntity<ExcelUploadResponse> parseUpload(
+            @PathVariable String uploadId,
+            @Parameter(description = "Optional JSON query with filters, groupBy, aggregates, sort and limit")
+            @RequestParam(value = "query", required = false) DataQuery query) {
+
+        ExcelUploadResponse response = uploadSessionService.withCompletedUpload(uploadId,
+                upload -> excelService.parseExcelFile(upload.file(), upload.filename(), query));
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @PostMapping("/{uploadId}/pdf")
+    @Operation(summary = "Convert a completed upload to PDF")
+    public ResponseEntity<byte[]> generatePdfFromUpload(
+            @PathVariable String uploadId,
+            @Parameter(description = "Optional JSON query with filters, groupBy, aggregates, sort and limit")
+            @RequestParam(value = "query", required = false) DataQuery query) {
+
+        return uploadSessionService.withCompletedUpload(uploadId, upload -> {
+            byte[] pdfBytes = pdfService.generatePdfFromExcel(upload.file(), upload.filename(), query);
+
+            String pdfFilename = FilenameUtil.toPdfFilename(upload.filename());
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_PDF);
+            headers.setContentDispositionFormData("attachment", pdfFilename);
+            headers.setContentLength(pdfBytes.length);
+
+            return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
+        });
+    }
+
+    @DeleteMapping("/{uploadId}")
+    @Operation(summary = "Abort an upload and delete its data")
+    public ResponseEntity<Void> deleteUpload(@PathVariable String uploadId) {
+
+        uploadSessionService.deleteSession(uploadId);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.docservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DataQuery {
+    private List<QueryFilter> filters;
+    private List<String> groupBy;
+    private List<QueryAggregate> aggregates;
+    private List<QuerySort> sort;
+    private Integer limit;
+}
@@ -0,0 +1,18 @@
+package com.example.docservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueryAggregate {
+    private Function function;
+    private String column;
+    private String alias;
+
+    public enum Function {
+        SUM, COUNT, MIN, MAX, AVG
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.docservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueryFilter {
+    private String column;
+    private Operator operator;
+    private Object value;
+
+    public enum Operator {
+        EQ, NE, GT, GTE, LT, LTE, CONTAINS, IS_NULL, NOT_NULL
+    }
+}
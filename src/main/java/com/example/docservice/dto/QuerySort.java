@@ -0,0 +1,17 @@
+package com.example.docservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuerySort {
+    private String column;
+    private Direction direction = Direction.ASC;
+
+    public enum Direction {
+        ASC, DESC
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.docservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SheetMetadata {
+    private String name;
+    private String dimension;
+    private List<String> headers;
+    private Integer approximateRowCount;
+}
@@ -0,0 +1,16 @@
+package com.example.docservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadCompleteRequest {
+    @NotBlank
+    @Pattern(regexp = "^[0-9a-fA-F]{64}$", message = "must be a hex encoded SHA-256 digest")
+    private String checksum;
+}
@@ -0,0 +1,23 @@
+package com.example.docservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionRequest {
+    @NotBlank
+    private String filename;
+
+    @NotNull
+    @Positive
+    private Long totalSize;
+
+    @Positive
+    private Long chunkSize;
+}
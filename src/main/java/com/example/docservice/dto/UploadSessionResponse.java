@@ -0,0 +1,23 @@
+package com.example.docservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionResponse {
+    private boolean success;
+    private String message;
+    private String uploadId;
+    private String filename;
+    private Long totalSize;
+    private Long chunkSize;
+    private Integer totalChunks;
+    private Integer receivedChunks;
+    private List<Integer> missingChunks;
+    private boolean completed;
+}
@@ -0,0 +1,17 @@
+package com.example.docservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkbookInspectionResponse {
+    private boolean success;
+    private String message;
+    private Integer totalSheets;
+    private List<SheetMetadata> sheets;
+}
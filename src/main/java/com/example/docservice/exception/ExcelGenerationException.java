@@ -0,0 +1,12 @@
+package com.example.docservice.exception;
+
+public class ExcelGenerationException extends RuntimeException {
+
+    public ExcelGenerationException(String message) {
+        super(message);
+    }
+
+    public ExcelGenerationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.docservice.exception;
+
+public class InvalidQueryException extends RuntimeException {
+    
+    public InvalidQueryException(String message) {
+        super(message);
+    }
+
+}
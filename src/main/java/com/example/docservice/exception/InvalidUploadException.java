@@ -0,0 +1,12 @@
+package com.example.docservice.exception;
+
+public class InvalidUploadException extends RuntimeException {
+    
+    public InvalidUploadException(String message) {
+        super(message);
+    }
+
+    public InvalidUploadException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
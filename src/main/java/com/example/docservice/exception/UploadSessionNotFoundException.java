@@ -0,0 +1,9 @@
+package com.example.docservice.exception;
+
+public class UploadSessionNotFoundException extends RuntimeException {
+    
+    public UploadSessionNotFoundException(String message) {
+        super(message);
+    }
+
+}
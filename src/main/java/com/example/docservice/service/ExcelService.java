@@ -1,57 +1,158 @@
 package com.example.docservice.service;
 
+import com.example.docservice.dto.DataQuery;
 import com.example.docservice.dto.ExcelRowData;
 import com.example.docservice.dto.ExcelUploadResponse;
+import com.example.docservice.dto.SheetMetadata;
+import com.example.docservice.dto.WorkbookInspectionResponse;
 import com.example.docservice.exception.ExcelParsingException;
 import com.example.docservice.exception.InvalidFileFormatException;
+import com.example.docservice.util.RowQueryProcessor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 
-import static com.example.docservice.util.ExcelParserUtil.parseExcel;
+import static com.example.docservice.util.CsvParserUtil.readCsv;
+import static com.example.docservice.util.ExcelParserUtil.readExcel;
+import static com.example.docservice.util.FilenameUtil.isCsv;
+import static com.example.docservice.util.FilenameUtil.isSupported;
+import static com.example.docservice.util.FilenameUtil.isWorkbook;
+import static com.example.docservice.util.WorkbookInspectorUtil.inspectWorkbook;
 
 @Service
 public class ExcelService {
 
-    public ExcelUploadResponse parseExcelFile(MultipartFile file) {
+    @Value("${docservice.query.max-groups}")
+    private int maxGroups;
+
+    @Value("${docservice.query.max-limit}")
+    private int maxLimit;
+
+    public ExcelUploadResponse parseExcelFile(MultipartFile file, DataQuery query) {
         validateFile(file);
         
         try {
-            List<ExcelRowData> parsedData = parseExcel(
-                    file.getInputStream(), 
-                    file.getOriginalFilename()
-            );
-            
-            ExcelUploadResponse response = new ExcelUploadResponse();
-            response.setSuccess(true);
-            response.setMessage("File parsed successfully");
-            response.setTotalRows(parsedData.size());
-            response.setData(parsedData);
-            
-            return response;
+            return parseData(file.getInputStream(), file.getOriginalFilename(), query);
             
         } catch (IOException e) {
             throw new ExcelParsingException("Failed to read file: " + e.getMessage(), e);
         }
     }
 
+    public ExcelUploadResponse parseExcelFile(Path file, String filename, DataQuery query) {
+        validateFilename(filename);
+
+        RowQueryProcessor queryProcessor = new RowQueryProcessor(query, maxGroups, maxLimit);
+        if (isCsv(filename)) {
+            try (InputStream inputStream = Files.newInputStream(file)) {
+                readCsv(inputStream, queryProcessor::acceptHeaders, queryProcessor);
+
+            } catch (IOException e) {
+                throw new ExcelParsingException("Failed to read file: " + e.getMessage(), e);
+            }
+        } else {
+            // Workbooks are opened in place instead of being read through a stream into memory
+            readExcel(file, filename, queryProcessor::acceptHeaders, queryProcessor);
+        }
+        return toUploadResponse(queryProcessor.getResults());
+    }
+
+    private ExcelUploadResponse parseData(InputStream inputStream, String filename, DataQuery query) {
+        // Rows go through the query as they are parsed, so only the reduced result is kept
+        RowQueryProcessor queryProcessor = new RowQueryProcessor(query, maxGroups, maxLimit);
+        if (isCsv(filename)) {
+            readCsv(inputStream, queryProcessor::acceptHeaders, queryProcessor);
+        } else {
+            readExcel(inputStream, filename, queryProcessor::acceptHeaders, queryProcessor);
+        }
+        return toUploadResponse(queryProcessor.getResults());
+    }
+
+    private ExcelUploadResponse toUploadResponse(List<ExcelRowData> parsedData) {
+        ExcelUploadResponse response = new ExcelUploadResponse();
+        response.setSuccess(true);
+        response.setMessage("File parsed successfully");
+        response.setTotalRows(parsedData.size());
+        response.setData(parsedData);
+
+        return response;
+    }
+
+    public WorkbookInspectionResponse inspectExcelFile(MultipartFile file) {
+        validateFile(file);
+        validateWorkbookFilename(file.getOriginalFilename());
+
+        Path tempFile = null;
+        try {
+            // transferTo(File) moves the part the container already stored on disk rather than copying it
+            tempFile = Files.createTempFile("inspect-", null);
+            file.transferTo(tempFile.toFile());
+            return toInspectionResponse(inspectWorkbook(tempFile, file.getOriginalFilename()));
+
+        } catch (IOException e) {
+            throw new ExcelParsingException("Failed to read file: " + e.getMessage(), e);
+        } finally {
+            deleteQuietly(tempFile);
+        }
+    }
+
+    public WorkbookInspectionResponse inspectExcelFile(Path file, String filename) {
+        validateFilename(filename);
+        validateWorkbookFilename(filename);
+        return toInspectionResponse(inspectWorkbook(file, filename));
+    }
+
+    private WorkbookInspectionResponse toInspectionResponse(List<SheetMetadata> sheets) {
+        WorkbookInspectionResponse response = new WorkbookInspectionResponse();
+        response.setSuccess(true);
+        response.setMessage("File inspected successfully");
+        response.setTotalSheets(sheets.size());
+        response.setSheets(sheets);
+        return response;
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Left for the OS to clean up with the rest of the temp directory
+        }
+    }
+
     private void validateFile(MultipartFile file) {
         if (file.isEmpty()) {
             throw new InvalidFileFormatException("File is empty");
         }
         
-        String filename = file.getOriginalFilename();
-        if (filename == null || (!filename.toLowerCase().endsWith(".xlsx") 
-                && !filename.toLowerCase().endsWith(".xls"))) {
-            throw new InvalidFileFormatException(
-                    "Invalid file format. Only .xlsx and .xls files are supported"
-            );
-        }
+        validateFilename(file.getOriginalFilename());
         
         if (file.getSize() == 0) {
             throw new InvalidFileFormatException("File size is 0 bytes");
         }
     }
+
+    private void validateWorkbookFilename(String filename) {
+        if (!isWorkbook(filename)) {
+            throw new InvalidFileFormatException(
+                    "Only .xlsx and .xls workbooks can be inspected, CSV files have no sheets or dimensions"
+            );
+        }
+    }
+
+    public void validateFilename(String filename) {
+        if (!isSupported(filename)) {
+            throw new InvalidFileFormatException(
+                    "Invalid file format. Only .xlsx, .xls and .csv files are supported"
+            );
+        }
+    }
 }
@@ -0,0 +1,78 @@
+package com.example.docservice.service;
+
+import com.example.docservice.dto.ExcelRowData;
+import com.example.docservice.exception.ExcelGenerationException;
+import com.example.docservice.exception.InvalidFileFormatException;
+import com.example.docservice.util.StreamingXlsxWriter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+@Service
+public class ExcelWriterService {
+
+    private final ObjectReader rowReader;
+    private final int windowSize;
+    private final boolean compressTempFiles;
+
+    public ExcelWriterService(ObjectMapper objectMapper,
+                              @Value("${docservice.excel.write.window-size}") int windowSize,
+                              @Value("${docservice.excel.write.compress-temp-files}") boolean compressTempFiles) {
+        this.rowReader = objectMapper.readerFor(ExcelRowData.class);
+        this.windowSize = windowSize;
+        this.compressTempFiles = compressTempFiles;
+    }
+
+    /**
+     * Reads rows one at a time from a JSON array or NDJSON stream and writes them into a
+     * windowed workbook. The request body is fully consumed before anything is returned, so
+     * invalid rows are still reported as a normal error response; the returned body then
+     * streams the finished workbook to the response and removes its temp files.
+     */
+    public StreamingResponseBody generateExcelFile(InputStream rowStream, String sheetName, List<String> columns) {
+        StreamingXlsxWriter writer = new StreamingXlsxWriter(sheetName, columns, windowSize, compressTempFiles);
+        try {
+            // Unwraps a top-level array, or reads whitespace separated values as NDJSON
+            try (MappingIterator<ExcelRowData> rows = rowReader.readValues(rowStream)) {
+                while (rows.hasNextValue()) {
+                    writer.writeRow(rows.nextValue());
+                }
+            }
+            if (writer.getRowCount() == 0) {
+                throw new InvalidFileFormatException("No rows provided for Excel generation");
+            }
+
+        } catch (JsonProcessingException e) {
+            closeQuietly(writer);
+            throw new InvalidFileFormatException("Invalid row data: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            closeQuietly(writer);
+            throw new ExcelGenerationException("Error reading row data: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            closeQuietly(writer);
+            throw e;
+        }
+
+        return outputStream -> {
+            try (writer) {
+                writer.writeTo(outputStream);
+            }
+        };
+    }
+
+    private void closeQuietly(StreamingXlsxWriter writer) {
+        try {
+            writer.close();
+        } catch (IOException ignored) {
+            // Nothing useful to report on top of the original failure
+        }
+    }
+}
@@ -1,12 +1,14 @@
 package com.example.docservice.service;
 
+import com.example.docservice.dto.DataQuery;
 import com.example.docservice.dto.ExcelRowData;
-import com.example.docservice.exception.InvalidFileFormatException;
+import com.example.docservice.util.FilenameUtil;
 import com.example.docservice.util.PdfGeneratorUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.nio.file.Path;
 import java.util.List;
 
 @Service
@@ -15,25 +17,17 @@ public class PdfService {
 
     private final ExcelService excelService;
 
-    public byte[] generatePdfFromExcel(MultipartFile file) {
-        validateFile(file);
-        List<ExcelRowData> excelData = excelService.parseExcelFile(file).getData();
+    public byte[] generatePdfFromExcel(MultipartFile file, DataQuery query) {
+        // ExcelService validates the upload before parsing it
+        List<ExcelRowData> excelData = excelService.parseExcelFile(file, query).getData();
         String title = generateTitle(file.getOriginalFilename());
         return PdfGeneratorUtil.generatePdfFromExcelData(title, excelData);
     }
 
-    private void validateFile(MultipartFile file) {
-        if (file.isEmpty()) {
-            throw new InvalidFileFormatException("File is empty");
-        }
-        
-        String filename = file.getOriginalFilename();
-        if (filename == null || (!filename.toLowerCase().endsWith(".xlsx") 
-                && !filename.toLowerCase().endsWith(".xls"))) {
-            throw new InvalidFileFormatException(
-                    "Invalid file format. Only .xlsx and .xls files are supported"
-            );
-        }
+    public byte[] generatePdfFromExcel(Path file, String filename, DataQuery query) {
+        List<ExcelRowData> excelData = excelService.parseExcelFile(file, filename, query).getData();
+        String title = generateTitle(filename);
+        return PdfGeneratorUtil.generatePdfFromExcelData(title, excelData);
     }
 
     private String generateTitle(String filename) {
@@ -42,7 +36,7 @@ public class PdfService {
         }
         
         // Remove extension
-        String title = filename.replaceAll("\\.(xlsx|xls)$", "");
+        String title = FilenameUtil.stripExtension(filename);
         
         // Capitalize first letter and replace underscores/hyphens with spaces
         title = title.replace("_", " ").replace("-", " ");
@@ -0,0 +1,395 @@
+package com.example.docservice.service;
+
+import com.example.docservice.dto.UploadSessionRequest;
+import com.example.docservice.dto.UploadSessionResponse;
+import com.example.docservice.exception.InvalidUploadException;
+import com.example.docservice.exception.UploadSessionNotFoundException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Keeps track of chunked upload sessions. Every session owns a single disk-backed file and
+ * chunks are written straight into it at their own offset, so chunks can arrive in any order
+ * and in parallel, and the finished file is handed to conversion without being copied.
+ */
+@Slf4j
+@Service
+public class UploadSessionService {
+
+    private static final int CHECKSUM_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_CHUNKS = 10_000;
+
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+    private final ExcelService excelService;
+    private final Path uploadDirectory;
+    private final long defaultChunkSize;
+    private final long maxChunkSize;
+    private final long maxFileSize;
+    private final int maxSessions;
+    private final Duration sessionTimeout;
+
+    public UploadSessionService(ExcelService excelService,
+                                @Value("${docservice.upload.directory}") Path uploadDirectory,
+                                @Value("${docservice.upload.default-chunk-size}") DataSize defaultChunkSize,
+                                @Value("${docservice.upload.max-chunk-size}") DataSize maxChunkSize,
+                                @Value("${docservice.upload.max-file-size}") DataSize maxFileSize,
+                                @Value("${docservice.upload.max-sessions}") int maxSessions,
+                                @Value("${docservice.upload.session-timeout}") Duration sessionTimeout) throws IOException {
+        this.excelService = excelService;
+        this.uploadDirectory = Files.createDirectories(uploadDirectory);
+        this.defaultChunkSize = defaultChunkSize.toBytes();
+        this.maxChunkSize = maxChunkSize.toBytes();
+        this.maxFileSize = maxFileSize.toBytes();
+        this.maxSessions = maxSessions;
+        this.sessionTimeout = sessionTimeout;
+    }
+
+    public UploadSessionResponse createSession(UploadSessionRequest request) {
+        excelService.validateFilename(request.getFilename());
+
+        long totalSize = request.getTotalSize();
+        if (totalSize > maxFileSize) {
+            throw new InvalidUploadException("File size exceeds the maximum allowed size");
+        }
+
+        long chunkSize = request.getChunkSize() != null ? request.getChunkSize() : defaultChunkSize;
+        if (chunkSize > maxChunkSize) {
+            throw new InvalidUploadException("Chunk size exceeds the maximum of " + maxChunkSize + " bytes");
+        }
+        if ((totalSize + chunkSize - 1) / chunkSize > MAX_CHUNKS) {
+            throw new InvalidUploadException("Chunk size is too small, an upload can have at most " + MAX_CHUNKS + " chunks");
+        }
+
+        if (sessions.size() >= maxSessions) {
+            throw tooManySessions();
+        }
+
+        String uploadId = UUID.randomUUID().toString();
+        Path file = uploadDirectory.resolve(uploadId + ".part");
+        try {
+            FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            // Size the file up front, transferFrom skips positions beyond the current end of file
+            channel.write(ByteBuffer.allocate(1), totalSize - 1);
+            UploadSession session = new UploadSession(uploadId, request.getFilename(), totalSize, chunkSize, file, channel);
+            sessions.put(uploadId, session);
+            // Concurrent creates can all pass the check above, so the loser of the race backs out
+            if (sessions.size() > maxSessions) {
+                sessions.remove(uploadId);
+                discard(session);
+                throw tooManySessions();
+            }
+            return toResponse(session, "Upload session created");
+
+        } catch (IOException e) {
+            throw new InvalidUploadException("Failed to create upload session: " + e.getMessage(), e);
+        }
+    }
+
+    public UploadSessionResponse writeChunk(String uploadId, int chunkIndex, InputStream body) {
+        UploadSession session = getSession(uploadId);
+        if (chunkIndex < 0 || chunkIndex >= session.totalChunks) {
+            throw new InvalidUploadException(
+                    "Chunk index must be between 0 and " + (session.totalChunks - 1)
+            );
+        }
+
+        // Chunk writes share the read lock, so they run in parallel but never overlap completion or removal
+        session.lock.readLock().lock();
+        try {
+            ensureWritable(session);
+            storeChunk(session, chunkIndex, body);
+        } finally {
+            session.lock.readLock().unlock();
+        }
+
+        return toResponse(session, "Chunk " + chunkIndex + " received");
+    }
+
+    public UploadSessionResponse getStatus(String uploadId) {
+        UploadSession session = getSession(uploadId);
+        return toResponse(session, session.completed ? "Upload completed" : "Upload in progress");
+    }
+
+    public UploadSessionResponse completeUpload(String uploadId, String checksum) {
+        UploadSession session = getSession(uploadId);
+
+        session.lock.writeLock().lock();
+        try {
+            if (session.discarded) {
+                throw new UploadSessionNotFoundException("Upload session not found: " + uploadId);
+            }
+            if (session.completed) {
+                return toResponse(session, "Upload completed");
+            }
+
+            int missing = session.totalChunks - session.receivedCount();
+            if (missing > 0) {
+                throw new InvalidUploadException("Upload is missing " + missing + " chunk(s)");
+            }
+
+            String actualChecksum = sha256(session);
+            if (!actualChecksum.equalsIgnoreCase(checksum)) {
+                throw new InvalidUploadException("Checksum mismatch, expected " + checksum + " but was " + actualChecksum);
+            }
+
+            try {
+                session.channel.close();
+            } catch (IOException e) {
+                throw new InvalidUploadException("Failed to finalize upload: " + e.getMessage(), e);
+            }
+            session.completed = true;
+        } finally {
+            session.lock.writeLock().unlock();
+        }
+
+        return toResponse(session, "Upload completed");
+    }
+
+    /**
+     * Runs a conversion against a completed upload while holding the session's read lock, so
+     * deleting or expiring the session waits until the conversion is done with the file.
+     */
+    public <T> T withCompletedUpload(String uploadId, Function<CompletedUpload, T> conversion) {
+        UploadSession session = getSession(uploadId);
+        session.lock.readLock().lock();
+        try {
+            if (session.discarded) {
+                throw new UploadSessionNotFoundException("Upload session not found: " + uploadId);
+            }
+            if (!session.completed) {
+                throw new InvalidUploadException("Upload is not completed yet");
+            }
+            return conversion.apply(new CompletedUpload(session.file, session.filename));
+        } finally {
+            // A long conversion counts as use, so the session does not expire right after it
+            session.lastAccess = System.currentTimeMillis();
+            session.lock.readLock().unlock();
+        }
+    }
+
+    public void deleteSession(String uploadId) {
+        UploadSession session = sessions.remove(uploadId);
+        if (session == null) {
+            throw new UploadSessionNotFoundException("Upload session not found: " + uploadId);
+        }
+        discardLocked(session);
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void expireSessions() {
+        long now = System.currentTimeMillis();
+        sessions.values().removeIf(session -> {
+            if (now - session.lastAccess < sessionTimeout.toMillis()) {
+                return false;
+            }
+            // A session with a chunk write in flight is still in use, check it again on the next run
+            if (!session.lock.writeLock().tryLock()) {
+                return false;
+            }
+            try {
+                log.info("Expiring upload session {}", session.id);
+                discard(session);
+            } finally {
+                session.lock.writeLock().unlock();
+            }
+            return true;
+        });
+    }
+
+    @PreDestroy
+    public void discardAll() {
+        sessions.values().forEach(this::discardLocked);
+        sessions.clear();
+    }
+
+    private UploadSession getSession(String uploadId) {
+        UploadSession session = sessions.get(uploadId);
+        if (session == null) {
+            throw new UploadSessionNotFoundException("Upload session not found: " + uploadId);
+        }
+        session.lastAccess = System.currentTimeMillis();
+        return session;
+    }
+
+    private void storeChunk(UploadSession session, int chunkIndex, InputStream body) {
+        long offset = chunkIndex * session.chunkSize;
+        long expectedLength = Math.min(session.chunkSize, session.totalSize - offset);
+
+        // A failed or oversized write may have overwritten earlier data, so the chunk only counts once stored in full
+        session.markMissing(chunkIndex);
+        try {
+            // Positional transfers never touch the channel's own position, so parallel chunks don't interfere
+            ReadableByteChannel source = Channels.newChannel(body);
+            long written = 0;
+            while (written < expectedLength) {
+                long transferred = session.channel.transferFrom(source, offset + written, expectedLength - written);
+                if (transferred <= 0) {
+                    break;
+                }
+                written += transferred;
+            }
+
+            if (written != expectedLength || body.read() != -1) {
+                throw new InvalidUploadException(
+                        "Chunk " + chunkIndex + " must be exactly " + expectedLength + " bytes"
+                );
+            }
+
+        } catch (IOException e) {
+            throw new InvalidUploadException("Failed to store chunk " + chunkIndex + ": " + e.getMessage(), e);
+        }
+
+        session.markReceived(chunkIndex);
+    }
+
+    private InvalidUploadException tooManySessions() {
+        return new InvalidUploadException(
+                "Too many open upload sessions, the maximum is " + maxSessions + ". Delete a finished upload and try again"
+        );
+    }
+
+    private void ensureWritable(UploadSession session) {
+        if (session.discarded) {
+            throw new UploadSessionNotFoundException("Upload session not found: " + session.id);
+        }
+        if (session.completed) {
+            throw new InvalidUploadException("Upload is already completed");
+        }
+    }
+
+    private String sha256(UploadSession session) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ByteBuffer buffer = ByteBuffer.allocateDirect(CHECKSUM_BUFFER_SIZE);
+            long position = 0;
+            while (position < session.totalSize) {
+                int read = session.channel.read(buffer, position);
+                if (read < 0) {
+                    break;
+                }
+                position += read;
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+            return HexFormat.of().formatHex(digest.digest());
+
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new InvalidUploadException("Failed to verify checksum: " + e.getMessage(), e);
+        }
+    }
+
+    private void discardLocked(UploadSession session) {
+        session.lock.writeLock().lock();
+        try {
+            discard(session);
+        } finally {
+            session.lock.writeLock().unlock();
+        }
+    }
+
+    private void discard(UploadSession session) {
+        session.discarded = true;
+        try {
+            session.channel.close();
+            Files.deleteIfExists(session.file);
+        } catch (IOException e) {
+            log.warn("Failed to delete upload file {}", session.file, e);
+        }
+    }
+
+    private UploadSessionResponse toResponse(UploadSession session, String message) {
+        List<Integer> missingChunks = session.missingChunks();
+        return new UploadSessionResponse(
+                true,
+                message,
+                session.id,
+                session.filename,
+                session.totalSize,
+                session.chunkSize,
+                session.totalChunks,
+                session.totalChunks - missingChunks.size(),
+                missingChunks,
+                session.completed
+        );
+    }
+
+    public record CompletedUpload(Path file, String filename) {
+    }
+
+    private static class UploadSession {
+        private final String id;
+        private final String filename;
+        private final long totalSize;
+        private final long chunkSize;
+        private final int totalChunks;
+        private final Path file;
+        private final FileChannel channel;
+        private final BitSet receivedChunks = new BitSet();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private volatile boolean completed;
+        private volatile boolean discarded;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private UploadSession(String id, String filename, long totalSize, long chunkSize, Path file, FileChannel channel) {
+            this.id = id;
+            this.filename = filename;
+            this.totalSize = totalSize;
+            this.chunkSize = chunkSize;
+            this.totalChunks = (int) ((totalSize + chunkSize - 1) / chunkSize);
+            this.file = file;
+            this.channel = channel;
+        }
+
+        private void markReceived(int chunkIndex) {
+            synchronized (receivedChunks) {
+                receivedChunks.set(chunkIndex);
+            }
+        }
+
+        private void markMissing(int chunkIndex) {
+            synchronized (receivedChunks) {
+                receivedChunks.clear(chunkIndex);
+            }
+        }
+
+        private int receivedCount() {
+            synchronized (receivedChunks) {
+                return receivedChunks.cardinality();
+            }
+        }
+
+        private List<Integer> missingChunks() {
+            List<Integer> missing = new ArrayList<>();
+            synchronized (receivedChunks) {
+                for (int i = receivedChunks.nextClearBit(0); i < totalChunks; i = receivedChunks.nextClearBit(i + 1)) {
+                    missing.add(i);
+                }
+            }
+            return missing;
+        }
+    }
+}
@@ -0,0 +1,391 @@
+package com.example.docservice.util;
+
+import com.example.docservice.dto.ExcelRowData;
+import com.example.docservice.exception.ExcelParsingException;
+import com.example.docservice.exception.InvalidFileFormatException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Streams RFC 4180 style CSV (UTF-8, comma separated) into {@link ExcelRowData} rows.
+ * Bytes are tokenized straight from a fixed read buffer into a reusable field buffer, so
+ * the only allocations per row are the row map and the values themselves. Values are
+ * typed the same way {@code ExcelParserUtil} types cells: whole numbers as {@code Long},
+ * other numbers as {@code Double}, booleans as {@code Boolean}, date-times as
+ * {@code yyyy-MM-dd} strings and empty fields as {@code null}.
+ */
+public class CsvParserUtil {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_LONG_DIGITS = 18;
+    private static final double LONG_RANGE = 0x1p63;
+
+    private static final byte COMMA = ',';
+    private static final byte QUOTE = '"';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+
+    public static List<ExcelRowData> parseCsv(InputStream inputStream) {
+        List<ExcelRowData> rowDataList = new ArrayList<>();
+        readCsv(inputStream, headers -> { }, rowDataList::add);
+        return rowDataList;
+    }
+
+    /**
+     * Reads every record, handing the header record to {@code headerConsumer} before any data
+     * row reaches {@code rowConsumer}. Input without records reports an empty header list.
+     */
+    public static void readCsv(InputStream inputStream, Consumer<List<String>> headerConsumer,
+                               Consumer<ExcelRowData> rowConsumer) {
+        CsvTokenizer tokenizer = new CsvTokenizer(inputStream);
+        List<String> headers = null;
+        List<Object> values = new ArrayList<>();
+        int rowNumber = 1;
+
+        try {
+            int result;
+            while ((result = tokenizer.nextField()) != CsvTokenizer.END_OF_INPUT) {
+                values.add(headers == null ? tokenizer.fieldAsString() : tokenizer.fieldValue());
+
+                if (result == CsvTokenizer.END_OF_RECORD) {
+                    // Blank lines carry no cells, the same as missing rows in a sheet
+                    boolean blankLine = values.size() == 1 && tokenizer.isFieldEmpty();
+                    if (!blankLine) {
+                        if (headers == null) {
+                            headers = extractHeaders(values);
+                            headerConsumer.accept(headers);
+                        } else {
+                            rowConsumer.accept(parseRow(values, headers, rowNumber));
+                            rowNumber++;
+                        }
+                    }
+                    values.clear();
+                }
+            }
+            if (headers == null) {
+                headerConsumer.accept(List.of());
+            }
+        } catch (IOException e) {
+            throw new ExcelParsingException("Error parsing CSV file: " + e.getMessage(), e);
+        }
+    }
+
+    private static List<String> extractHeaders(List<Object> values) {
+        List<String> headers = new ArrayList<>(values.size());
+        for (int i = 0; i < values.size(); i++) {
+            String header = (String) values.get(i);
+            headers.add(header.isEmpty() ? "Column_" + i : header);
+        }
+        return headers;
+    }
+
+    private static ExcelRowData parseRow(List<Object> values, List<String> headers, int rowNumber) {
+        Map<String, Object> columnData = new LinkedHashMap<>();
+
+        for (int i = 0; i < headers.size(); i++) {
+            columnData.put(headers.get(i), i < values.size() ? values.get(i) : null);
+        }
+
+        return new ExcelRowData(rowNumber, columnData);
+    }
+
+    private static final class CsvTokenizer {
+        private static final int END_OF_FIELD = 0;
+        private static final int END_OF_RECORD = 1;
+        private static final int END_OF_INPUT = 2;
+
+        private static final int NUMBER_NONE = 0;
+        private static final int NUMBER_INTEGER = 1;
+        private static final int NUMBER_DECIMAL = 2;
+
+        private final InputStream inputStream;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position;
+        private int limit;
+        private boolean started;
+        private boolean afterDelimiter;
+
+        private byte[] field = new byte[256];
+        private int fieldLength;
+        private boolean quoted;
+
+        private CsvTokenizer(InputStream inputStream) {
+            this.inputStream = inputStream;
+        }
+
+        private int nextField() throws IOException {
+            fieldLength = 0;
+            quoted = false;
+
+            int b = read();
+            if (b == -1) {
+                // A trailing delimiter at end of input still closes an empty last field
+                boolean closesRecord = afterDelimiter;
+                afterDelimiter = false;
+                return closesRecord ? END_OF_RECORD : END_OF_INPUT;
+            }
+
+            if (b == QUOTE) {
+                quoted = true;
+                while (true) {
+                    b = read();
+                    if (b == -1) {
+                        // Malformed input is the client's problem, only read failures are server errors
+                        throw new InvalidFileFormatException("Invalid CSV file: unterminated quoted field");
+                    }
+                    if (b == QUOTE) {
+                        b = read();
+                        if (b != QUOTE) {
+                            break;
+                        }
+                    }
+                    append(b);
+                }
+            }
+
+            // Unquoted field, or stray characters after a closing quote which are kept leniently
+            while (b != COMMA && b != LF && b != CR && b != -1) {
+                append(b);
+                b = read();
+            }
+
+            afterDelimiter = b == COMMA;
+            if (b == COMMA) {
+                return END_OF_FIELD;
+            }
+            if (b == CR && peek() == LF) {
+                position++;
+            }
+            return END_OF_RECORD;
+        }
+
+        private boolean isFieldEmpty() {
+            return fieldLength == 0 && !quoted;
+        }
+
+        private String fieldAsString() {
+            return new String(field, 0, fieldLength, StandardCharsets.UTF_8);
+        }
+
+        private Object fieldValue() {
+            if (fieldLength == 0) {
+                return null;
+            }
+
+            Boolean booleanValue = parseBoolean();
+            if (booleanValue != null) {
+                return booleanValue;
+            }
+
+            int numberKind = numberKind();
+            if (numberKind == NUMBER_INTEGER) {
+                return parseLong();
+            }
+            if (numberKind == NUMBER_DECIMAL) {
+                double numericValue = Double.parseDouble(fieldAsString());
+                // Whole numbers become Long only when they fit, larger ones would saturate to Long.MAX_VALUE
+                if (numericValue == Math.floor(numericValue) && Math.abs(numericValue) < LONG_RANGE) {
+                    return (long) numericValue;
+                }
+                return numericValue;
+            }
+
+            if (isDateTime()) {
+                return new String(field, 0, 10, StandardCharsets.US_ASCII);
+            }
+            return fieldAsString();
+        }
+
+        private int numberKind() {
+            int i = 0;
+            if (field[0] == '-' || field[0] == '+') {
+                i++;
+            }
+
+            int digits = 0;
+            boolean decimal = false;
+            while (i < fieldLength && isDigit(field[i])) {
+                i++;
+                digits++;
+            }
+            if (i < fieldLength && field[i] == '.') {
+                decimal = true;
+                i++;
+                while (i < fieldLength && isDigit(field[i])) {
+                    i++;
+                    digits++;
+                }
+            }
+            if (digits == 0) {
+                return NUMBER_NONE;
+            }
+            if (i < fieldLength && (field[i] == 'e' || field[i] == 'E')) {
+                decimal = true;
+                i++;
+                if (i < fieldLength && (field[i] == '-' || field[i] == '+')) {
+                    i++;
+                }
+                int exponentDigits = 0;
+                while (i < fieldLength && isDigit(field[i])) {
+                    i++;
+                    exponentDigits++;
+                }
+                if (exponentDigits == 0) {
+                    return NUMBER_NONE;
+                }
+            }
+            if (i != fieldLength) {
+                return NUMBER_NONE;
+            }
+            return decimal || digits > MAX_LONG_DIGITS ? NUMBER_DECIMAL : NUMBER_INTEGER;
+        }
+
+        private long parseLong() {
+            int i = 0;
+            boolean negative = false;
+            if (field[0] == '-' || field[0] == '+') {
+                negative = field[0] == '-';
+                i++;
+            }
+
+            long value = 0;
+            for (; i < fieldLength; i++) {
+                value = value * 10 + (field[i] - '0');
+            }
+            return negative ? -value : value;
+        }
+
+        private Boolean parseBoolean() {
+            if (equalsIgnoreCase("true")) {
+                return Boolean.TRUE;
+            }
+            if (equalsIgnoreCase("false")) {
+                return Boolean.FALSE;
+            }
+            return null;
+        }
+
+        private boolean equalsIgnoreCase(String expected) {
+            if (fieldLength != expected.length()) {
+                return false;
+            }
+            for (int i = 0; i < fieldLength; i++) {
+                if (Character.toLowerCase(field[i]) != expected.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // yyyy-MM-dd, optionally followed by 'T' or ' ' and HH:mm[:ss[.fraction]]
+        private boolean isDateTime() {
+            if (fieldLength != 10 && fieldLength < 16) {
+                return false;
+            }
+            if (!digits(0, 4) || field[4] != '-' || !digits(5, 2) || field[7] != '-' || !digits(8, 2)) {
+                return false;
+            }
+            if (fieldLength > 10) {
+                if ((field[10] != 'T' && field[10] != ' ') || !digits(11, 2) || field[13] != ':' || !digits(14, 2)) {
+                    return false;
+                }
+                int i = 16;
+                if (i < fieldLength) {
+                    if (fieldLength < 19 || field[16] != ':' || !digits(17, 2)) {
+                        return false;
+                    }
+                    i = 19;
+                    if (i < fieldLength && (field[i] != '.' || !digits(i + 1, fieldLength - i - 1))) {
+                        return false;
+                    }
+                }
+            }
+            try {
+                LocalDate.of(number(0, 4), number(5, 2), number(8, 2));
+                return true;
+            } catch (DateTimeException e) {
+                return false;
+            }
+        }
+
+        private boolean digits(int from, int count) {
+            if (count <= 0 || from + count > fieldLength) {
+                return false;
+            }
+            for (int i = from; i < from + count; i++) {
+                if (!isDigit(field[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int number(int from, int count) {
+            int value = 0;
+            for (int i = from; i < from + count; i++) {
+                value = value * 10 + (field[i] - '0');
+            }
+            return value;
+        }
+
+        private static boolean isDigit(byte b) {
+            return b >= '0' && b <= '9';
+        }
+
+        private void append(int b) {
+            if (fieldLength == field.length) {
+                field = Arrays.copyOf(field, field.length * 2);
+            }
+            field[fieldLength++] = (byte) b;
+        }
+
+        private int read() throws IOException {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        private int peek() throws IOException {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            return buffer[position] & 0xFF;
+        }
+
+        private boolean fill() throws IOException {
+            int read = inputStream.read(buffer, 0, buffer.length);
+            if (read <= 0) {
+                return false;
+            }
+            position = 0;
+            limit = read;
+
+            if (!started) {
+                started = true;
+                // A short first read could split the byte order mark, so make sure three bytes are in
+                while (limit < 3) {
+                    int more = inputStream.read(buffer, limit, buffer.length - limit);
+                    if (more <= 0) {
+                        break;
+                    }
+                    limit += more;
+                }
+                // Skip the UTF-8 byte order mark Excel writes at the start of "CSV UTF-8" exports
+                if (limit >= 3 && buffer[0] == (byte) 0xEF && buffer[1] == (byte) 0xBB && buffer[2] == (byte) 0xBF) {
+                    position = 3;
+                    if (position == limit) {
+                        return fill();
+                    }
+                }
+            }
+            return true;
+        }
+    }
+}
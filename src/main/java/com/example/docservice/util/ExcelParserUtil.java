@@ -2,6 +2,12 @@ package com.example.docservice.util;
 
 import com.example.docservice.dto.ExcelRowData;
 import com.example.docservice.exception.ExcelParsingException;
+import com.example.docservice.exception.InvalidFileFormatException;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.NotOfficeXmlFileException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
@@ -9,46 +15,92 @@ import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.function.Consumer;
 
 public class ExcelParserUtil {
 
     private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd");
 
     public static List<ExcelRowData> parseExcel(InputStream inputStream, String filename) {
+        List<ExcelRowData> rowDataList = new ArrayList<>();
+        readExcel(inputStream, filename, headers -> { }, rowDataList::add);
+        return rowDataList;
+    }
+
+    /**
+     * Reads the first sheet, handing its header row to {@code headerConsumer} before any data
+     * row reaches {@code rowConsumer}. A sheet without rows reports an empty header list.
+     */
+    public static void readExcel(InputStream inputStream, String filename,
+                                 Consumer<List<String>> headerConsumer, Consumer<ExcelRowData> rowConsumer) {
+        try (Workbook workbook = createWorkbook(inputStream, filename)) {
+            readRows(workbook, headerConsumer, rowConsumer);
+
+        } catch (IOException e) {
+            throw new ExcelParsingException("Error parsing Excel file: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads a workbook that is already on disk. The file is opened in place and read-only,
+     * so zip entries and BIFF blocks are read from the file as needed instead of first
+     * being copied into memory.
+     */
+    public static void readExcel(Path file, String filename,
+                                 Consumer<List<String>> headerConsumer, Consumer<ExcelRowData> rowConsumer) {
+        String lowerName = filename.toLowerCase();
         try {
-            Workbook workbook = createWorkbook(inputStream, filename);
-            Sheet sheet = workbook.getSheetAt(0);
-            
-            List<ExcelRowData> rowDataList = new ArrayList<>();
-            List<String> headers = new ArrayList<>();
-            
-            Iterator<Row> rowIterator = sheet.iterator();
-            
-            // Parse header row
-            if (rowIterator.hasNext()) {
-                Row headerRow = rowIterator.next();
-                headers = extractHeaders(headerRow);
-            }
-            
-            // Parse data rows
-            int rowNumber = 1;
-            while (rowIterator.hasNext()) {
-                Row row = rowIterator.next();
-                ExcelRowData rowData = parseRow(row, headers, rowNumber);
-                rowDataList.add(rowData);
-                rowNumber++;
+            if (lowerName.endsWith(".xlsx")) {
+                OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ);
+                try {
+                    readRows(new XSSFWorkbook(pkg), headerConsumer, rowConsumer);
+                } finally {
+                    // Closing a read-only package would try to save it, revert just releases the file
+                    pkg.revert();
+                }
+            } else if (lowerName.endsWith(".xls")) {
+                try (POIFSFileSystem fileSystem = new POIFSFileSystem(file.toFile(), true)) {
+                    readRows(new HSSFWorkbook(fileSystem.getRoot(), true), headerConsumer, rowConsumer);
+                }
+            } else {
+                throw new ExcelParsingException("Unsupported file format");
             }
-            
-            workbook.close();
-            return rowDataList;
-            
+
+        } catch (InvalidFormatException | NotOfficeXmlFileException e) {
+            throw new InvalidFileFormatException("File is corrupt or not a valid Excel workbook");
         } catch (IOException e) {
             throw new ExcelParsingException("Error parsing Excel file: " + e.getMessage(), e);
         }
     }
 
+    private static void readRows(Workbook workbook, Consumer<List<String>> headerConsumer,
+                                 Consumer<ExcelRowData> rowConsumer) {
+        Sheet sheet = workbook.getSheetAt(0);
+        
+        List<String> headers = new ArrayList<>();
+        
+        Iterator<Row> rowIterator = sheet.iterator();
+        
+        // Parse header row
+        if (rowIterator.hasNext()) {
+            Row headerRow = rowIterator.next();
+            headers = extractHeaders(headerRow);
+        }
+        headerConsumer.accept(headers);
+        
+        // Parse data rows
+        int rowNumber = 1;
+        while (rowIterator.hasNext()) {
+            Row row = rowIterator.next();
+            ExcelRowData rowData = parseRow(row, headers, rowNumber);
+            rowConsumer.accept(rowData);
+            rowNumber++;
+        }
+    }
+
     private static Workbook createWorkbook(InputStream inputStream, String filename) throws IOException {
         if (filename.toLowerCase().endsWith(".xlsx")) {
             return new XSSFWorkbook(inputStream);
@@ -0,0 +1,34 @@
+package com.example.docservice.util;
+
+import java.util.regex.Pattern;
+
+/**
+ * The file types the service accepts, kept in one place so validation, format dispatch
+ * and derived filenames agree. Extensions are matched case-insensitively.
+ */
+public class FilenameUtil {
+
+    private static final Pattern SUPPORTED_EXTENSION = Pattern.compile("\\.(xlsx|xls|csv)$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern WORKBOOK_EXTENSION = Pattern.compile("\\.(xlsx|xls)$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CSV_EXTENSION = Pattern.compile("\\.csv$", Pattern.CASE_INSENSITIVE);
+
+    public static boolean isSupported(String filename) {
+        return filename != null && SUPPORTED_EXTENSION.matcher(filename).find();
+    }
+
+    public static boolean isWorkbook(String filename) {
+        return filename != null && WORKBOOK_EXTENSION.matcher(filename).find();
+    }
+
+    public static boolean isCsv(String filename) {
+        return filename != null && CSV_EXTENSION.matcher(filename).find();
+    }
+
+    public static String stripExtension(String filename) {
+        return SUPPORTED_EXTENSION.matcher(filename).replaceFirst("");
+    }
+
+    public static String toPdfFilename(String filename) {
+        return filename != null ? stripExtension(filename) + ".pdf" : "document.pdf";
+    }
+}
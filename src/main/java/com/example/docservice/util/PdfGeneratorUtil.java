@@ -28,7 +28,7 @@ public class PdfGeneratorUtil {
     private static final float MIN_COLUMN_WIDTH = 60;
 
     public static byte[] generatePdfFromExcelData(String title, List<ExcelRowData> excelData) {
-        if (excelData == null || excelData.isEmpty()) {
+        if (excelData == null) {
             throw new PdfGenerationException("No data provided for PDF generation");
         }
 
@@ -36,7 +36,9 @@ public class PdfGeneratorUtil {
              ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
 
             // Extract headers from first row
-            List<String> headers = new ArrayList<>(excelData.get(0).getColumns().keySet());
+            List<String> headers = excelData.isEmpty()
+                    ? List.of()
+                    : new ArrayList<>(excelData.get(0).getColumns().keySet());
 
             // Use landscape orientation for better table display
             PDRectangle pageSize = new PDRectangle(PDRectangle.A4.getHeight(), PDRectangle.A4.getWidth());
@@ -57,8 +59,13 @@ public class PdfGeneratorUtil {
             yPosition = drawTitle(contentStream, title, pageWidth, yPosition);
             yPosition -= 20; // Space after title
 
-            // Draw table header
-            yPosition = drawTableHeader(contentStream, headers, MARGIN, yPosition, columnWidths);
+            if (excelData.isEmpty()) {
+                // A query that matches no rows still gets a report, saying so instead of an empty table
+                drawMessage(contentStream, "No rows to display", MARGIN, yPosition);
+            } else {
+                // Draw table header
+                yPosition = drawTableHeader(contentStream, headers, MARGIN, yPosition, columnWidths);
+            }
 
             // Draw table rows
             for (ExcelRowData rowData : excelData) {
@@ -140,6 +147,14 @@ public class PdfGeneratorUtil {
         return yPosition - TITLE_FONT_SIZE - 10;
     }
 
+    private static void drawMessage(PDPageContentStream contentStream, String message, float startX, float yPosition) throws IOException {
+        contentStream.beginText();
+        contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), HEADER_FONT_SIZE);
+        contentStream.newLineAtOffset(startX, yPosition - 14);
+        contentStream.showText(message);
+        contentStream.endText();
+    }
+
     private static float drawTableHeader(PDPageContentStream contentStream, List<String> headers,
                                   float startX, float yPosition, Map<String, Float> columnWidths) throws IOException {
         float currentX = startX;
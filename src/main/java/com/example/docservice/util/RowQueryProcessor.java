@@ -0,0 +1,382 @@
+package com.example.docservice.util;
+
+import com.example.docservice.dto.*;
+import com.example.docservice.exception.InvalidQueryException;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Applies a {@link DataQuery} to rows as the parsers produce them, in a single pass.
+ * Only the reduced result is kept: matching rows when there is no grouping or limit,
+ * one set of constant-size aggregators per group, or a bounded heap for top-N sorting.
+ * Without a query every row is passed through unchanged.
+ */
+public class RowQueryProcessor implements Consumer<ExcelRowData> {
+
+    private static final int INITIAL_HEAP_CAPACITY = 1024;
+
+    private final List<CompiledFilter> filters = new ArrayList<>();
+    private final List<String> groupBy;
+    private final List<QueryAggregate> aggregates;
+    private final List<String> aggregateNames = new ArrayList<>();
+    private final Comparator<ExcelRowData> sortOrder;
+    private final Integer limit;
+    private final int maxGroups;
+    private final Set<String> referencedColumns = new LinkedHashSet<>();
+
+    private final List<ExcelRowData> rows = new ArrayList<>();
+    private final PriorityQueue<ExcelRowData> topRows;
+    private final Map<List<Object>, Aggregator[]> groups = new LinkedHashMap<>();
+    private boolean columnsValidated;
+
+    public RowQueryProcessor(DataQuery query, int maxGroups, int maxLimit) {
+        DataQuery effectiveQuery = query != null ? query : new DataQuery();
+        this.maxGroups = maxGroups;
+        this.limit = effectiveQuery.getLimit();
+        this.groupBy = effectiveQuery.getGroupBy() != null ? effectiveQuery.getGroupBy() : List.of();
+        this.aggregates = effectiveQuery.getAggregates() != null ? effectiveQuery.getAggregates() : List.of();
+
+        if (limit != null && limit < 1) {
+            throw new InvalidQueryException("limit must be at least 1");
+        }
+        if (limit != null && limit > maxLimit) {
+            throw new InvalidQueryException("limit must be at most " + maxLimit);
+        }
+
+        if (effectiveQuery.getFilters() != null) {
+            for (QueryFilter filter : effectiveQuery.getFilters()) {
+                filters.add(compileFilter(filter));
+            }
+        }
+
+        referencedColumns.addAll(groupBy);
+        for (QueryAggregate aggregate : aggregates) {
+            aggregateNames.add(validateAggregate(aggregate));
+        }
+
+        List<QuerySort> sort = effectiveQuery.getSort() != null ? effectiveQuery.getSort() : List.of();
+        this.sortOrder = sort.isEmpty() ? null : compileSort(sort);
+        // Keep the worst row on top so it can be evicted once the heap is full
+        this.topRows = sortOrder != null && limit != null && !isGrouped()
+                ? new PriorityQueue<>(Math.min(limit, INITIAL_HEAP_CAPACITY) + 1, sortOrder.reversed())
+                : null;
+    }
+
+    /**
+     * Checks the query's columns against the file's header row. The parsers report headers
+     * before the first row, so a file with headers but no data rows still rejects unknown
+     * columns. Without headers the columns of the first row are checked instead.
+     */
+    public void acceptHeaders(List<String> headers) {
+        validateColumns(new HashSet<>(headers));
+        columnsValidated = true;
+    }
+
+    @Override
+    public void accept(ExcelRowData row) {
+        if (!columnsValidated) {
+            validateColumns(row.getColumns().keySet());
+            columnsValidated = true;
+        }
+
+        for (CompiledFilter filter : filters) {
+            if (!filter.matches(row.getColumns().get(filter.column))) {
+                return;
+            }
+        }
+
+        if (isGrouped()) {
+            aggregate(row);
+        } else if (topRows != null) {
+            topRows.add(row);
+            if (topRows.size() > limit) {
+                topRows.poll();
+            }
+        } else if (sortOrder != null || limit == null || rows.size() < limit) {
+            rows.add(row);
+        }
+    }
+
+    public List<ExcelRowData> getResults() {
+        if (isGrouped()) {
+            return sortAndLimit(groupRows());
+        }
+        if (topRows != null) {
+            List<ExcelRowData> result = new ArrayList<>(topRows);
+            result.sort(sortOrder);
+            return result;
+        }
+        return sortAndLimit(rows);
+    }
+
+    private boolean isGrouped() {
+        return !groupBy.isEmpty() || !aggregates.isEmpty();
+    }
+
+    private void aggregate(ExcelRowData row) {
+        List<Object> key = new ArrayList<>(groupBy.size());
+        for (String column : groupBy) {
+            key.add(row.getColumns().get(column));
+        }
+
+        Aggregator[] aggregators = groups.get(key);
+        if (aggregators == null) {
+            if (groups.size() >= maxGroups) {
+                throw new InvalidQueryException("Query produces more than " + maxGroups + " groups");
+            }
+            aggregators = new Aggregator[aggregates.size()];
+            for (int i = 0; i < aggregators.length; i++) {
+                aggregators[i] = new Aggregator(aggregates.get(i));
+            }
+            groups.put(key, aggregators);
+        }
+
+        for (Aggregator aggregator : aggregators) {
+            aggregator.add(aggregator.column != null ? row.getColumns().get(aggregator.column) : null);
+        }
+    }
+
+    private List<ExcelRowData> groupRows() {
+        // Aggregates over the whole input still produce one row when nothing matched
+        if (groups.isEmpty() && groupBy.isEmpty()) {
+            Aggregator[] aggregators = new Aggregator[aggregates.size()];
+            for (int i = 0; i < aggregators.length; i++) {
+                aggregators[i] = new Aggregator(aggregates.get(i));
+            }
+            groups.put(List.of(), aggregators);
+        }
+
+        List<ExcelRowData> result = new ArrayList<>(groups.size());
+        int rowNumber = 1;
+        for (Map.Entry<List<Object>, Aggregator[]> group : groups.entrySet()) {
+            Map<String, Object> columnData = new LinkedHashMap<>();
+            for (int i = 0; i < groupBy.size(); i++) {
+                columnData.put(groupBy.get(i), group.getKey().get(i));
+            }
+            for (int i = 0; i < aggregateNames.size(); i++) {
+                columnData.put(aggregateNames.get(i), group.getValue()[i].result());
+            }
+            result.add(new ExcelRowData(rowNumber++, columnData));
+        }
+        return result;
+    }
+
+    private List<ExcelRowData> sortAndLimit(List<ExcelRowData> result) {
+        if (sortOrder != null) {
+            result.sort(sortOrder);
+        }
+        if (limit != null && result.size() > limit) {
+            return new ArrayList<>(result.subList(0, limit));
+        }
+        return result;
+    }
+
+    private void validateColumns(Set<String> headers) {
+        for (String column : referencedColumns) {
+            if (!headers.contains(column)) {
+                throw new InvalidQueryException("Unknown column '" + column + "'");
+            }
+        }
+    }
+
+    private CompiledFilter compileFilter(QueryFilter filter) {
+        if (filter.getColumn() == null || filter.getOperator() == null) {
+            throw new InvalidQueryException("Every filter needs a column and an operator");
+        }
+        boolean needsValue = filter.getOperator() != QueryFilter.Operator.IS_NULL
+                && filter.getOperator() != QueryFilter.Operator.NOT_NULL;
+        if (needsValue && filter.getValue() == null) {
+            throw new InvalidQueryException("Filter on '" + filter.getColumn() + "' needs a value");
+        }
+        referencedColumns.add(filter.getColumn());
+        return new CompiledFilter(filter.getColumn(), filter.getOperator(), filter.getValue());
+    }
+
+    private String validateAggregate(QueryAggregate aggregate) {
+        if (aggregate.getFunction() == null) {
+            throw new InvalidQueryException("Every aggregate needs a function");
+        }
+        if (aggregate.getColumn() == null && aggregate.getFunction() != QueryAggregate.Function.COUNT) {
+            throw new InvalidQueryException(aggregate.getFunction() + " needs a column");
+        }
+        if (aggregate.getColumn() != null) {
+            referencedColumns.add(aggregate.getColumn());
+        }
+        if (aggregate.getAlias() != null && !aggregate.getAlias().isBlank()) {
+            return aggregate.getAlias();
+        }
+        String column = aggregate.getColumn() != null ? aggregate.getColumn() : "*";
+        return aggregate.getFunction().name().toLowerCase() + "(" + column + ")";
+    }
+
+    private Comparator<ExcelRowData> compileSort(List<QuerySort> sort) {
+        Comparator<ExcelRowData> comparator = null;
+        for (QuerySort order : sort) {
+            String column = order.getColumn();
+            if (column == null) {
+                throw new InvalidQueryException("Every sort needs a column");
+            }
+            if (isGrouped()) {
+                if (!groupBy.contains(column) && !aggregateNames.contains(column)) {
+                    throw new InvalidQueryException(
+                            "Grouped queries can only sort by group columns or aggregates, not '" + column + "'"
+                    );
+                }
+            } else {
+                referencedColumns.add(column);
+            }
+
+            Comparator<Object> values = Comparator.nullsLast(RowQueryProcessor::compareValues);
+            if (order.getDirection() == QuerySort.Direction.DESC) {
+                values = Comparator.nullsLast(((Comparator<Object>) RowQueryProcessor::compareValues).reversed());
+            }
+            Comparator<ExcelRowData> byColumn = Comparator.comparing(row -> row.getColumns().get(column), values);
+            comparator = comparator == null ? byColumn : comparator.thenComparing(byColumn);
+        }
+        // Ties keep their original order
+        return comparator.thenComparingInt(ExcelRowData::getRowNumber);
+    }
+
+    // Mixed columns order numbers before booleans before text, so the ordering stays transitive
+    private static int compareValues(Object left, Object right) {
+        int byType = Integer.compare(typeRank(left), typeRank(right));
+        if (byType != 0) {
+            return byType;
+        }
+        if (left instanceof Number leftNumber && right instanceof Number rightNumber) {
+            return Double.compare(leftNumber.doubleValue(), rightNumber.doubleValue());
+        }
+        if (left instanceof Boolean leftBoolean && right instanceof Boolean rightBoolean) {
+            return Boolean.compare(leftBoolean, rightBoolean);
+        }
+        return String.valueOf(left).compareTo(String.valueOf(right));
+    }
+
+    private static int typeRank(Object value) {
+        if (value instanceof Number) {
+            return 0;
+        }
+        if (value instanceof Boolean) {
+            return 1;
+        }
+        return 2;
+    }
+
+    private static Double toNumber(Object value) {
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        if (value instanceof String text) {
+            try {
+                return Double.parseDouble(text.trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static class CompiledFilter {
+        private final String column;
+        private final QueryFilter.Operator operator;
+        private final String textValue;
+        private final String lowerCaseValue;
+        private final Double numericValue;
+
+        private CompiledFilter(String column, QueryFilter.Operator operator, Object value) {
+            this.column = column;
+            this.operator = operator;
+            this.textValue = value != null ? String.valueOf(value) : null;
+            this.lowerCaseValue = textValue != null ? textValue.toLowerCase() : null;
+            this.numericValue = toNumber(value);
+        }
+
+        private boolean matches(Object cellValue) {
+            switch (operator) {
+                case IS_NULL:
+                    return cellValue == null;
+                case NOT_NULL:
+                    return cellValue != null;
+                case NE:
+                    return cellValue == null || compare(cellValue) != 0;
+                case CONTAINS:
+                    return cellValue != null && String.valueOf(cellValue).toLowerCase().contains(lowerCaseValue);
+                default:
+                    break;
+            }
+
+            if (cellValue == null) {
+                return false;
+            }
+            int comparison = compare(cellValue);
+            return switch (operator) {
+                case EQ -> comparison == 0;
+                case GT -> comparison > 0;
+                case GTE -> comparison >= 0;
+                case LT -> comparison < 0;
+                case LTE -> comparison <= 0;
+                default -> false;
+            };
+        }
+
+        private int compare(Object cellValue) {
+            if (cellValue instanceof Number number && numericValue != null) {
+                return Double.compare(number.doubleValue(), numericValue);
+            }
+            return String.valueOf(cellValue).compareTo(textValue);
+        }
+    }
+
+    private static class Aggregator {
+        private final QueryAggregate.Function function;
+        private final String column;
+        private long count;
+        private double sum;
+        private Object min;
+        private Object max;
+
+        private Aggregator(QueryAggregate aggregate) {
+            this.function = aggregate.getFunction();
+            this.column = aggregate.getColumn();
+        }
+
+        private void add(Object value) {
+            switch (function) {
+                case COUNT -> {
+                    if (column == null || value != null) {
+                        count++;
+                    }
+                }
+                case SUM, AVG -> {
+                    if (value instanceof Number number) {
+                        sum += number.doubleValue();
+                        count++;
+                    }
+                }
+                case MIN -> {
+                    if (value != null && (min == null || compareValues(value, min) < 0)) {
+                        min = value;
+                    }
+                }
+                case MAX -> {
+                    if (value != null && (max == null || compareValues(value, max) > 0)) {
+                        max = value;
+                    }
+                }
+            }
+        }
+
+        private Object result() {
+            return switch (function) {
+                case COUNT -> count;
+                // Like SQL, a sum over no numeric values is null rather than 0
+                case SUM -> count == 0 ? null
+                        : sum == Math.floor(sum) && Math.abs(sum) < 0x1p63 ? (Object) (long) sum : (Object) sum;
+                case AVG -> count == 0 ? null : sum / count;
+                case MIN -> min;
+                case MAX -> max;
+            };
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.docservice.util;
+
+import com.example.docservice.dto.ExcelRowData;
+import com.example.docservice.exception.InvalidFileFormatException;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes {@link ExcelRowData} rows into a single-sheet {@code .xlsx} with SXSSF. Only the last
+ * {@code windowSize} rows are kept in memory, older rows are flushed to a temp file, and strings
+ * are written inline instead of into a shared strings table, so memory does not grow with the
+ * number of rows. Cells are typed the same way the parsers type them: numbers as numeric cells,
+ * booleans as boolean cells and {@code yyyy-MM-dd} strings as date cells. Styles are created once
+ * per workbook and shared by every cell.
+ */
+public class StreamingXlsxWriter implements Closeable {
+
+    private static final int MAX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+    private static final int MAX_COLUMNS = SpreadsheetVersion.EXCEL2007.getMaxColumns();
+    private static final int MAX_TEXT_LENGTH = SpreadsheetVersion.EXCEL2007.getMaxTextLength();
+    private static final int COLUMN_WIDTH = 18;
+
+    private final SXSSFWorkbook workbook;
+    private final SXSSFSheet sheet;
+    private final CellStyle headerStyle;
+    private final CellStyle dateStyle;
+    private List<String> headers;
+    private Set<String> headerNames;
+    private int nextRow;
+
+    public StreamingXlsxWriter(String sheetName, int windowSize, boolean compressTempFiles) {
+        this(sheetName, null, windowSize, compressTempFiles);
+    }
+
+    /**
+     * @param columns the header row, in order. When {@code null} or empty the columns of the
+     *                first row are used instead
+     */
+    public StreamingXlsxWriter(String sheetName, List<String> columns, int windowSize, boolean compressTempFiles) {
+        this.workbook = new SXSSFWorkbook(null, windowSize, compressTempFiles, false);
+        this.sheet = workbook.createSheet(WorkbookUtil.createSafeSheetName(sheetName));
+        sheet.setDefaultColumnWidth(COLUMN_WIDTH);
+
+        Font headerFont = workbook.createFont();
+        headerFont.setBold(true);
+        this.headerStyle = workbook.createCellStyle();
+        headerStyle.setFont(headerFont);
+
+        this.dateStyle = workbook.createCellStyle();
+        dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+
+        if (columns != null && !columns.isEmpty()) {
+            writeHeader(columns);
+        }
+    }
+
+    /**
+     * Appends a data row. Unless the columns were given up front, the columns of the first row
+     * become the header row. Rows are matched to the header by column name, a missing column
+     * leaves its cell empty and a column that is not in the header is rejected rather than dropped.
+     */
+    public void writeRow(ExcelRowData rowData) {
+        Map<String, Object> columns = rowData.getColumns() != null ? rowData.getColumns() : Map.of();
+        if (headers == null) {
+            writeHeader(new ArrayList<>(columns.keySet()));
+        } else {
+            for (String column : columns.keySet()) {
+                if (!headerNames.contains(column)) {
+                    throw new InvalidFileFormatException(
+                            "Row " + (getRowCount() + 1) + " has column '" + column + "' that is not in the header row. "
+                                    + "Send every column in the first row or list them in the columns parameter"
+                    );
+                }
+            }
+        }
+        if (nextRow >= MAX_ROWS) {
+            throw new InvalidFileFormatException(
+                    "Too many rows, an .xlsx sheet holds at most " + (MAX_ROWS - 1) + " data rows"
+            );
+        }
+
+        Row row = sheet.createRow(nextRow++);
+        for (int i = 0; i < headers.size(); i++) {
+            Object value = columns.get(headers.get(i));
+            if (value != null) {
+                setCellValue(row.createCell(i), value);
+            }
+        }
+    }
+
+    public int getRowCount() {
+        return Math.max(nextRow - 1, 0);
+    }
+
+    public void writeTo(OutputStream outputStream) throws IOException {
+        workbook.write(outputStream);
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Removes the temp files backing the flushed rows
+        workbook.dispose();
+        workbook.close();
+    }
+
+    private void writeHeader(List<String> columns) {
+        if (columns.size() > MAX_COLUMNS) {
+            throw new InvalidFileFormatException("Too many columns, an .xlsx sheet holds at most " + MAX_COLUMNS);
+        }
+        headerNames = new HashSet<>(columns);
+        if (headerNames.size() != columns.size()) {
+            throw new InvalidFileFormatException("Column names must be unique");
+        }
+        headers = List.copyOf(columns);
+
+        Row headerRow = sheet.createRow(nextRow++);
+        for (int i = 0; i < headers.size(); i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(headers.get(i));
+            cell.setCellStyle(headerStyle);
+        }
+        sheet.createFreezePane(0, 1);
+    }
+
+    private void setCellValue(Cell cell, Object value) {
+        if (value instanceof Number number) {
+            cell.setCellValue(number.doubleValue());
+        } else if (value instanceof Boolean booleanValue) {
+            cell.setCellValue(booleanValue);
+        } else {
+            String text = String.valueOf(value);
+            LocalDate date = parseDate(text);
+            if (date != null) {
+                cell.setCellValue(date);
+                cell.setCellStyle(dateStyle);
+            } else if (text.length() > MAX_TEXT_LENGTH) {
+                throw new InvalidFileFormatException(
+                        "Value in row " + cell.getRowIndex() + " exceeds the maximum cell length of " + MAX_TEXT_LENGTH
+                );
+            } else {
+                cell.setCellValue(text);
+            }
+        }
+    }
+
+    private static LocalDate parseDate(String text) {
+        if (text.length() != 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return null;
+        }
+        try {
+            return LocalDate.parse(text);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,431 @@
+package com.example.docservice.util;
+
+import com.example.docservice.dto.SheetMetadata;
+import com.example.docservice.exception.ExcelParsingException;
+import com.example.docservice.exception.InvalidFileFormatException;
+import org.apache.poi.hssf.eventusermodel.AbortableHSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.eventusermodel.HSSFUserException;
+import org.apache.poi.hssf.record.*;
+import org.apache.poi.ooxml.POIXMLException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.RecordFormatException;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Reads sheet names, dimensions and header rows without materializing cell data.
+ * XLSX sheets are streamed with StAX and abandoned after the first row; shared
+ * strings are only read up to the highest index a header refers to.
+ */
+public class WorkbookInspectorUtil {
+
+    /**
+     * Inspects a workbook that is already on disk. The file is opened in place, read-only,
+     * so nothing is copied regardless of its size.
+     */
+    public static List<SheetMetadata> inspectWorkbook(Path file, String filename) {
+        try {
+            FileMagic fileMagic = FileMagic.valueOf(file.toFile());
+            String lowerName = filename.toLowerCase();
+
+            if (fileMagic == FileMagic.OOXML && lowerName.endsWith(".xlsx")) {
+                return inspectXlsx(file);
+            } else if (fileMagic == FileMagic.OLE2 && lowerName.endsWith(".xls")) {
+                return inspectXls(file);
+            }
+            throw mismatchedContent();
+
+        } catch (POIXMLException | RecordFormatException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            // Malformed zip entries, sheet XML or BIFF blocks surface as unchecked exceptions from POI and our own parsing
+            throw corruptContent();
+        } catch (IOException e) {
+            throw new ExcelParsingException("Error inspecting Excel file: " + e.getMessage(), e);
+        }
+    }
+
+    private static InvalidFileFormatException corruptContent() {
+        return new InvalidFileFormatException("File is corrupt or not a valid Excel workbook");
+    }
+
+    private static InvalidFileFormatException mismatchedContent() {
+        return new InvalidFileFormatException(
+                "File content does not match its extension or is not a valid Excel workbook"
+        );
+    }
+
+    private static List<SheetMetadata> inspectXlsx(Path file) throws IOException {
+        OPCPackage pkg = null;
+        try {
+            pkg = OPCPackage.open(file.toFile(), PackageAccess.READ);
+            XSSFReader reader = new XSSFReader(pkg);
+
+            List<XlsxSheetScan> scans = new ArrayList<>();
+            XSSFReader.SheetIterator sheetIterator = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheetIterator.hasNext()) {
+                try (InputStream sheetStream = sheetIterator.next()) {
+                    scans.add(scanSheet(sheetIterator.getSheetName(), sheetStream));
+                }
+            }
+
+            Set<Integer> sharedStringIndexes = new HashSet<>();
+            for (XlsxSheetScan scan : scans) {
+                sharedStringIndexes.addAll(scan.sharedStringRefs.values());
+            }
+            Map<Integer, String> sharedStrings = readSharedStrings(reader, sharedStringIndexes);
+
+            List<SheetMetadata> sheets = new ArrayList<>();
+            for (XlsxSheetScan scan : scans) {
+                scan.sharedStringRefs.forEach((col, index) ->
+                        scan.headerValues.put(col, sharedStrings.getOrDefault(index, "")));
+                sheets.add(toSheetMetadata(scan));
+            }
+            return sheets;
+
+        } catch (OpenXML4JException | XMLStreamException e) {
+            throw corruptContent();
+        } finally {
+            if (pkg != null) {
+                pkg.revert();
+            }
+        }
+    }
+
+    private static XlsxSheetScan scanSheet(String sheetName, InputStream sheetStream) throws XMLStreamException {
+        XlsxSheetScan scan = new XlsxSheetScan(sheetName);
+        XMLStreamReader xml = XMLHelper.newXMLInputFactory().createXMLStreamReader(sheetStream);
+
+        try {
+            int nextColumn = 0;
+            int column = 0;
+            String cellType = null;
+            boolean collecting = false;
+            StringBuilder text = new StringBuilder();
+
+            while (xml.hasNext()) {
+                int event = xml.next();
+
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (xml.getLocalName()) {
+                        case "dimension" -> scan.dimension = xml.getAttributeValue(null, "ref");
+                        case "row" -> {
+                            String rowRef = xml.getAttributeValue(null, "r");
+                            scan.headerRow = rowRef != null ? Integer.parseInt(rowRef) - 1 : 0;
+                        }
+                        case "c" -> {
+                            String ref = xml.getAttributeValue(null, "r");
+                            column = ref != null ? new CellReference(ref).getCol() : nextColumn;
+                            nextColumn = column + 1;
+                            cellType = xml.getAttributeValue(null, "t");
+                            text.setLength(0);
+                        }
+                        case "v", "t" -> collecting = true;
+                        default -> { }
+                    }
+                } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                    if (collecting) {
+                        text.append(xml.getText());
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String name = xml.getLocalName();
+                    if (name.equals("v") || name.equals("t")) {
+                        collecting = false;
+                    } else if (name.equals("c")) {
+                        recordHeaderCell(scan, column, cellType, text.toString());
+                    } else if (name.equals("row") || name.equals("sheetData")) {
+                        // Only the first row is needed, skip the rest of the sheet
+                        break;
+                    }
+                }
+            }
+        } finally {
+            xml.close();
+        }
+        return scan;
+    }
+
+    private static void recordHeaderCell(XlsxSheetScan scan, int column, String cellType, String value) {
+        if ("s".equals(cellType)) {
+            if (value.isEmpty()) {
+                scan.headerValues.put(column, "");
+            } else {
+                scan.sharedStringRefs.put(column, Integer.parseInt(value));
+            }
+        } else if ("b".equals(cellType)) {
+            scan.headerValues.put(column, String.valueOf("1".equals(value)));
+        } else if (cellType == null || "n".equals(cellType)) {
+            scan.headerValues.put(column, value.isEmpty() ? "" : String.valueOf(Double.parseDouble(value)));
+        } else {
+            scan.headerValues.put(column, value);
+        }
+    }
+
+    private static Map<Integer, String> readSharedStrings(XSSFReader reader, Set<Integer> indexes)
+            throws IOException, OpenXML4JException, XMLStreamException {
+        Map<Integer, String> sharedStrings = new HashMap<>();
+        if (indexes.isEmpty()) {
+            return sharedStrings;
+        }
+
+        int maxIndex = Collections.max(indexes);
+        try (InputStream sstStream = reader.getSharedStringsData()) {
+            if (sstStream == null) {
+                return sharedStrings;
+            }
+
+            XMLStreamReader xml = XMLHelper.newXMLInputFactory().createXMLStreamReader(sstStream);
+            try {
+                int index = -1;
+                boolean collecting = false;
+                boolean inPhonetic = false;
+                StringBuilder text = new StringBuilder();
+
+                while (xml.hasNext() && index <= maxIndex) {
+                    int event = xml.next();
+
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        switch (xml.getLocalName()) {
+                            case "si" -> {
+                                index++;
+                                text.setLength(0);
+                            }
+                            case "rPh" -> inPhonetic = true;
+                            case "t" -> collecting = !inPhonetic && indexes.contains(index);
+                            default -> { }
+                        }
+                    } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                        if (collecting) {
+                            text.append(xml.getText());
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        switch (xml.getLocalName()) {
+                            case "t" -> collecting = false;
+                            case "rPh" -> inPhonetic = false;
+                            case "si" -> {
+                                if (indexes.contains(index)) {
+                                    sharedStrings.put(index, text.toString());
+                                }
+                            }
+                            default -> { }
+                        }
+                    }
+                }
+            } finally {
+                xml.close();
+            }
+        }
+        return sharedStrings;
+    }
+
+    private static SheetMetadata toSheetMetadata(XlsxSheetScan scan) {
+        Integer approximateRowCount = null;
+        if (scan.dimension != null) {
+            CellRangeAddress range = CellRangeAddress.valueOf(scan.dimension);
+            int headerRow = scan.headerRow >= 0 ? scan.headerRow : range.getFirstRow();
+            approximateRowCount = Math.max(range.getLastRow() - headerRow, 0);
+        }
+        return new SheetMetadata(scan.name, scan.dimension, toHeaders(scan.headerValues), approximateRowCount);
+    }
+
+    private static List<SheetMetadata> inspectXls(Path file) throws IOException {
+        POIFSFileSystem fileSystem;
+        try {
+            fileSystem = new POIFSFileSystem(file.toFile(), true);
+        } catch (IOException e) {
+            // The magic bytes matched, so a container that cannot be opened is corrupt rather than unreadable
+            throw corruptContent();
+        }
+
+        try (fileSystem) {
+            XlsMetadataListener listener = new XlsMetadataListener();
+            HSSFRequest request = new HSSFRequest();
+            request.addListenerForAllRecords(listener);
+
+            new HSSFEventFactory().abortableProcessWorkbookEvents(request, fileSystem);
+            return listener.sheets;
+
+        } catch (HSSFUserException e) {
+            throw new ExcelParsingException("Error inspecting Excel file: " + e.getMessage(), e);
+        }
+    }
+
+    private static List<String> toHeaders(SortedMap<Integer, String> headerValues) {
+        List<String> headers = new ArrayList<>();
+        headerValues.forEach((col, value) ->
+                headers.add(value.isEmpty() ? "Column_" + col : value));
+        return headers;
+    }
+
+    private static class XlsxSheetScan {
+        private final String name;
+        private final SortedMap<Integer, String> headerValues = new TreeMap<>();
+        private final Map<Integer, Integer> sharedStringRefs = new HashMap<>();
+        private String dimension;
+        private int headerRow = -1;
+
+        private XlsxSheetScan(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Walks BIFF records, keeping only sheet names, DIMENSIONS and the first row's cells.
+     * Processing is aborted as soon as the last sheet's header row has been read.
+     */
+    private static class XlsMetadataListener extends AbortableHSSFListener {
+        private static final short CONTINUE = 0;
+        private static final short ABORT = 1;
+
+        private final List<String> sheetNames = new ArrayList<>();
+        private final List<SheetMetadata> sheets = new ArrayList<>();
+        private SSTRecord sst;
+
+        private int depth;
+        private int sheetIndex = -1;
+        private SheetMetadata current;
+        private SortedMap<Integer, String> headerValues;
+        private int headerRow = -1;
+        private int lastRow = -1;
+        private int pendingFormulaColumn = -1;
+
+        @Override
+        public short abortableProcessRecord(org.apache.poi.hssf.record.Record record) {
+            switch (record.getSid()) {
+                case BoundSheetRecord.sid -> sheetNames.add(((BoundSheetRecord) record).getSheetname());
+                case SSTRecord.sid -> sst = (SSTRecord) record;
+                case BOFRecord.sid -> {
+                    depth++;
+                    int type = ((BOFRecord) record).getType();
+                    if (depth == 1 && type != BOFRecord.TYPE_WORKBOOK) {
+                        sheetIndex++;
+                        if (type == BOFRecord.TYPE_WORKSHEET) {
+                            startSheet();
+                        }
+                    }
+                }
+                case EOFRecord.sid -> {
+                    depth--;
+                    if (depth == 0 && current != null) {
+                        return finishSheet();
+                    }
+                }
+                case DimensionsRecord.sid -> {
+                    if (depth == 1 && current != null) {
+                        readDimensions((DimensionsRecord) record);
+                    }
+                }
+                case RowRecord.sid -> {
+                    // The first ROW record is what the usermodel row iterator treats as the header
+                    if (depth == 1 && current != null && headerRow < 0) {
+                        headerRow = ((RowRecord) record).getRowNumber();
+                        current.setApproximateRowCount(Math.max(lastRow - headerRow, 0));
+                    }
+                }
+                default -> {
+                    if (current != null && headerRow >= 0) {
+                        return readCell(record);
+                    }
+                }
+            }
+            return CONTINUE;
+        }
+
+        private void startSheet() {
+            String name = sheetIndex < sheetNames.size() ? sheetNames.get(sheetIndex) : "Sheet" + (sheetIndex + 1);
+            current = new SheetMetadata(name, null, null, 0);
+            headerValues = new TreeMap<>();
+            headerRow = -1;
+            lastRow = -1;
+            pendingFormulaColumn = -1;
+        }
+
+        private short finishSheet() {
+            current.setHeaders(toHeaders(headerValues));
+            sheets.add(current);
+            current = null;
+            headerRow = -1;
+            return sheetIndex >= sheetNames.size() - 1 ? ABORT : CONTINUE;
+        }
+
+        private void readDimensions(DimensionsRecord dimensions) {
+            // BIFF stores the last row and column as exclusive bounds
+            lastRow = dimensions.getLastRow() - 1;
+            int lastCol = dimensions.getLastCol() - 1;
+            if (lastRow < dimensions.getFirstRow() || lastCol < dimensions.getFirstCol()) {
+                return;
+            }
+            CellRangeAddress range = new CellRangeAddress(
+                    dimensions.getFirstRow(), lastRow, dimensions.getFirstCol(), lastCol);
+            current.setDimension(range.formatAsString());
+        }
+
+        private short readCell(org.apache.poi.hssf.record.Record record) {
+            if (record instanceof StringRecord stringRecord) {
+                if (pendingFormulaColumn >= 0) {
+                    headerValues.put(pendingFormulaColumn, stringRecord.getString());
+                    pendingFormulaColumn = -1;
+                }
+                return CONTINUE;
+            }
+
+            if (record instanceof MulBlankRecord mulBlank) {
+                if (mulBlank.getRow() == headerRow) {
+                    for (int col = mulBlank.getFirstColumn(); col <= mulBlank.getLastColumn(); col++) {
+                        headerValues.putIfAbsent(col, "");
+                    }
+                }
+                return mulBlank.getRow() > headerRow ? finishSheet() : CONTINUE;
+            }
+
+            if (!(record instanceof CellValueRecordInterface cell)) {
+                return CONTINUE;
+            }
+            if (cell.getRow() > headerRow) {
+                return finishSheet();
+            }
+            if (cell.getRow() == headerRow) {
+                headerValues.put((int) cell.getColumn(), cellValueAsString(cell));
+            }
+            return CONTINUE;
+        }
+
+        private String cellValueAsString(CellValueRecordInterface cell) {
+            if (cell instanceof LabelSSTRecord label) {
+                return sst != null ? sst.getString(label.getSSTIndex()).getString() : "";
+            } else if (cell instanceof LabelRecord label) {
+                return label.getValue();
+            } else if (cell instanceof NumberRecord number) {
+                return String.valueOf(number.getValue());
+            } else if (cell instanceof BoolErrRecord boolErr) {
+                return boolErr.isBoolean() ? String.valueOf(boolErr.getBooleanValue()) : "";
+            } else if (cell instanceof FormulaRecord formula) {
+                return switch (formula.getCachedResultTypeEnum()) {
+                    case NUMERIC -> String.valueOf(formula.getValue());
+                    case BOOLEAN -> String.valueOf(formula.getCachedBooleanValue());
+                    case STRING -> {
+                        pendingFormulaColumn = cell.getColumn();
+                        yield "";
+                    }
+                    default -> "";
+                };
+            }
+            return "";
+        }
+    }
+}
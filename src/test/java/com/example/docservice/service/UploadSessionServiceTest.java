@@ -0,0 +1,354 @@
+package com.example.docservice.service;
+
+import com.example.docservice.dto.UploadSessionRequest;
+import com.example.docservice.dto.UploadSessionResponse;
+import com.example.docservice.exception.InvalidFileFormatException;
+import com.example.docservice.exception.InvalidUploadException;
+import com.example.docservice.exception.UploadSessionNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UploadSessionServiceTest {
+
+    private static final int CHUNK_SIZE = 10;
+
+    @TempDir
+    Path tempDir;
+
+    private UploadSessionService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.discardAll();
+        }
+    }
+
+    @Test
+    void assemblesChunksSentOutOfOrder() {
+        service = newService(5, Duration.ofHours(1));
+        byte[] data = randomBytes(35);
+        String uploadId = create("data.xlsx", data.length);
+
+        for (int chunkIndex : new int[]{3, 1, 0, 2}) {
+            writeChunk(uploadId, chunkIndex, chunk(data, chunkIndex));
+        }
+        UploadSessionResponse response = service.completeUpload(uploadId, sha256(data));
+
+        assertTrue(response.isCompleted());
+        assertEquals(4, response.getTotalChunks());
+        assertArrayEquals(data, readUpload(uploadId));
+    }
+
+    @Test
+    void assemblesChunksSentInParallel() throws Exception {
+        service = newService(5, Duration.ofHours(1));
+        byte[] data = randomBytes(CHUNK_SIZE * 200 + 3);
+        String uploadId = create("data.csv", data.length);
+        int totalChunks = 201;
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<UploadSessionResponse>> futures = new ArrayList<>();
+            for (int i = totalChunks - 1; i >= 0; i--) {
+                int chunkIndex = i;
+                futures.add(executor.submit(() -> writeChunk(uploadId, chunkIndex, chunk(data, chunkIndex))));
+            }
+            for (Future<UploadSessionResponse> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(List.of(), service.getStatus(uploadId).getMissingChunks());
+        service.completeUpload(uploadId, sha256(data));
+        assertArrayEquals(data, readUpload(uploadId));
+    }
+
+    @Test
+    void resentChunkReplacesTheEarlierOne() {
+        service = newService(5, Duration.ofHours(1));
+        byte[] data = randomBytes(25);
+        String uploadId = create("data.xlsx", data.length);
+
+        writeChunk(uploadId, 0, chunk(data, 0));
+        writeChunk(uploadId, 1, new byte[CHUNK_SIZE]);
+        writeChunk(uploadId, 2, chunk(data, 2));
+        UploadSessionResponse response = writeChunk(uploadId, 1, chunk(data, 1));
+
+        assertEquals(3, response.getReceivedChunks());
+        service.completeUpload(uploadId, sha256(data));
+        assertArrayEquals(data, readUpload(uploadId));
+    }
+
+    @Test
+    void rejectsShortAndOversizedChunks() {
+        service = newService(5, Duration.ofHours(1));
+        byte[] data = randomBytes(25);
+        String uploadId = create("data.xlsx", data.length);
+
+        assertThrows(InvalidUploadException.class, () -> writeChunk(uploadId, 0, new byte[CHUNK_SIZE - 1]));
+        assertThrows(InvalidUploadException.class, () -> writeChunk(uploadId, 1, new byte[CHUNK_SIZE + 1]));
+        // The last chunk only holds what is left of the file
+        assertThrows(InvalidUploadException.class, () -> writeChunk(uploadId, 2, new byte[CHUNK_SIZE]));
+
+        assertEquals(List.of(0, 1, 2), service.getStatus(uploadId).getMissingChunks());
+    }
+
+    @Test
+    void failedResendMarksChunkMissingAgain() {
+        service = newService(5, Duration.ofHours(1));
+        byte[] data = randomBytes(20);
+        String uploadId = create("data.xlsx", data.length);
+
+        writeChunk(uploadId, 0, chunk(data, 0));
+        assertThrows(InvalidUploadException.class, () -> writeChunk(uploadId, 0, new byte[3]));
+
+        assertEquals(List.of(0, 1), service.getStatus(uploadId).getMissingChunks());
+    }
+
+    @Test
+    void rejectsChecksumMismatchAndAllowsRetry() {
+        service = newService(5, Duration.ofHours(1));
+        byte[] data = randomBytes(15);
+        String uploadId = create("data.xlsx", data.length);
+        writeChunk(uploadId, 0, chunk(data, 0));
+        writeChunk(uploadId, 1, chunk(data, 1));
+
+        assertThrows(InvalidUploadException.class, () -> service.completeUpload(uploadId, sha256(new byte[15])));
+        assertFalse(service.getStatus(uploadId).isCompleted());
+
+        assertTrue(service.completeUpload(uploadId, sha256(data).toUpperCase()).isCompleted());
+    }
+
+    @Test
+    void rejectsCompletingWithMissingChunks() {
+        service = newService(5, Duration.ofHours(1));
+        byte[] data = randomBytes(30);
+        String uploadId = create("data.xlsx", data.length);
+        writeChunk(uploadId, 1, chunk(data, 1));
+
+        InvalidUploadException exception = assertThrows(InvalidUploadException.class,
+                () -> service.completeUpload(uploadId, sha256(data)));
+
+        assertEquals("Upload is missing 2 chunk(s)", exception.getMessage());
+        assertThrows(InvalidUploadException.class, () -> readUpload(uploadId));
+    }
+
+    @Test
+    void rejectsChunksAfterCompletion() {
+        service = newService(5, Duration.ofHours(1));
+        byte[] data = randomBytes(5);
+        String uploadId = create("data.xlsx", data.length);
+        writeChunk(uploadId, 0, data);
+        service.completeUpload(uploadId, sha256(data));
+
+        assertThrows(InvalidUploadException.class, () -> writeChunk(uploadId, 0, data));
+        assertTrue(service.completeUpload(uploadId, sha256(data)).isCompleted());
+    }
+
+    @Test
+    void rejectsUnsupportedFilesAndBadChunkIndexes() {
+        service = newService(5, Duration.ofHours(1));
+        String uploadId = create("data.xlsx", 25);
+
+        assertThrows(InvalidFileFormatException.class, () -> create("data.txt", 25));
+        assertThrows(InvalidUploadException.class, () -> writeChunk(uploadId, 3, new byte[5]));
+        assertThrows(InvalidUploadException.class, () -> writeChunk(uploadId, -1, new byte[CHUNK_SIZE]));
+    }
+
+    @Test
+    void capsOpenSessions() {
+        service = newService(2, Duration.ofHours(1));
+        String first = create("a.xlsx", 10);
+        create("b.xlsx", 10);
+
+        assertThrows(InvalidUploadException.class, () -> create("c.xlsx", 10));
+
+        service.deleteSession(first);
+        assertNotNull(create("c.xlsx", 10));
+    }
+
+    @Test
+    void capsSessionsCreatedConcurrently() throws Exception {
+        service = newService(3, Duration.ofHours(1));
+        int attempts = 16;
+
+        ExecutorService executor = Executors.newFixedThreadPool(attempts);
+        CountDownLatch start = new CountDownLatch(1);
+        int created = 0;
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                String filename = "file" + i + ".xlsx";
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        create(filename, 10);
+                        return true;
+                    } catch (InvalidUploadException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<Boolean> future : futures) {
+                if (future.get(10, TimeUnit.SECONDS)) {
+                    created++;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(3, created);
+        // Sessions that backed out of the race must not leave their files behind
+        try (var files = Files.list(tempDir)) {
+            assertEquals(3, files.count());
+        }
+    }
+
+    @Test
+    void deleteRemovesTheFile() throws IOException {
+        service = newService(5, Duration.ofHours(1));
+        String uploadId = create("data.xlsx", 25);
+
+        service.deleteSession(uploadId);
+
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+        assertThrows(UploadSessionNotFoundException.class, () -> service.getStatus(uploadId));
+        assertThrows(UploadSessionNotFoundException.class, () -> service.deleteSession(uploadId));
+    }
+
+    @Test
+    void expirySkipsSessionWithWriteInFlight() throws Exception {
+        service = newService(5, Duration.ZERO);
+        byte[] data = randomBytes(20);
+        String uploadId = create("data.xlsx", data.length);
+
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        InputStream blockingBody = new FilterInputStream(new ByteArrayInputStream(chunk(data, 0))) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                reading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+                return super.read(b, off, len);
+            }
+        };
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<UploadSessionResponse> write = executor.submit(() -> service.writeChunk(uploadId, 0, blockingBody));
+            assertTrue(reading.await(10, TimeUnit.SECONDS));
+
+            service.expireSessions();
+
+            release.countDown();
+            assertEquals(1, write.get(10, TimeUnit.SECONDS).getReceivedChunks());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        assertEquals(List.of(1), service.getStatus(uploadId).getMissingChunks());
+
+        service.expireSessions();
+
+        assertThrows(UploadSessionNotFoundException.class, () -> service.getStatus(uploadId));
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void keepsSessionsUsedWithinTheTimeout() {
+        service = newService(5, Duration.ofHours(1));
+        String uploadId = create("data.xlsx", 25);
+
+        service.expireSessions();
+
+        assertEquals(3, service.getStatus(uploadId).getTotalChunks());
+    }
+
+    private UploadSessionService newService(int maxSessions, Duration sessionTimeout) {
+        try {
+            return new UploadSessionService(
+                    new ExcelService(),
+                    tempDir,
+                    DataSize.ofBytes(CHUNK_SIZE),
+                    DataSize.ofKilobytes(1),
+                    DataSize.ofMegabytes(1),
+                    maxSessions,
+                    sessionTimeout
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String create(String filename, long totalSize) {
+        return service.createSession(new UploadSessionRequest(filename, totalSize, null)).getUploadId();
+    }
+
+    private UploadSessionResponse writeChunk(String uploadId, int chunkIndex, byte[] bytes) {
+        return service.writeChunk(uploadId, chunkIndex, new ByteArrayInputStream(bytes));
+    }
+
+    private byte[] readUpload(String uploadId) {
+        return service.withCompletedUpload(uploadId, upload -> {
+            try {
+                return Files.readAllBytes(upload.file());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static byte[] chunk(byte[] data, int chunkIndex) {
+        int from = chunkIndex * CHUNK_SIZE;
+        return Arrays.copyOfRange(data, from, Math.min(from + CHUNK_SIZE, data.length));
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
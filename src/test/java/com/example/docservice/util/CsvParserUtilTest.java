@@ -0,0 +1,246 @@
+package com.example.docservice.util;
+
+import com.example.docservice.dto.ExcelRowData;
+import com.example.docservice.exception.InvalidFileFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvParserUtilTest {
+
+    @Test
+    void usesFirstRecordAsHeaders() {
+        List<ExcelRowData> rows = parse("Name,Amount\nPen,3\nInk,5\n");
+
+        assertEquals(2, rows.size());
+        assertEquals(1, rows.get(0).getRowNumber());
+        assertEquals(List.of("Name", "Amount"), new ArrayList<>(rows.get(0).getColumns().keySet()));
+        assertEquals("Ink", rows.get(1).getColumns().get("Name"));
+    }
+
+    @Test
+    void namesEmptyHeaders() {
+        Map<String, Object> columns = parse("Name,,Price\na,b,c\n").get(0).getColumns();
+
+        assertEquals(List.of("Name", "Column_1", "Price"), new ArrayList<>(columns.keySet()));
+    }
+
+    @Test
+    void typesNumbers() {
+        Map<String, Object> columns = parse("a,b,c,d,e,f,g\n42,-7,+5,1.5,3.0,1e3,-2.5E-1\n").get(0).getColumns();
+
+        assertEquals(42L, columns.get("a"));
+        assertEquals(-7L, columns.get("b"));
+        assertEquals(5L, columns.get("c"));
+        assertEquals(1.5, columns.get("d"));
+        assertEquals(3L, columns.get("e"));
+        assertEquals(1000L, columns.get("f"));
+        assertEquals(-0.25, columns.get("g"));
+    }
+
+    @Test
+    void keepsIntegersBeyondLongRangeAsDouble() {
+        Map<String, Object> columns = parse("a,b,c\n99999999999999999999,-99999999999999999999,999999999999999999\n")
+                .get(0).getColumns();
+
+        assertEquals(1e20, columns.get("a"));
+        assertEquals(-1e20, columns.get("b"));
+        assertEquals(999999999999999999L, columns.get("c"));
+    }
+
+    @Test
+    void keepsNonNumbersAsText() {
+        Map<String, Object> columns = parse("a,b,c,d,e\n-,1.2.3,12abc,.,1e\n").get(0).getColumns();
+
+        assertEquals("-", columns.get("a"));
+        assertEquals("1.2.3", columns.get("b"));
+        assertEquals("12abc", columns.get("c"));
+        assertEquals(".", columns.get("d"));
+        assertEquals("1e", columns.get("e"));
+    }
+
+    @Test
+    void typesBooleans() {
+        Map<String, Object> columns = parse("a,b,c\ntrue,FALSE,yes\n").get(0).getColumns();
+
+        assertEquals(Boolean.TRUE, columns.get("a"));
+        assertEquals(Boolean.FALSE, columns.get("b"));
+        assertEquals("yes", columns.get("c"));
+    }
+
+    @Test
+    void typesDatesAsIsoDateStrings() {
+        Map<String, Object> columns = parse("a,b,c,d,e\n2024-01-15,2024-01-15T10:30:00,2024-01-15 10:30,2024-02-30,2024-1-15\n")
+                .get(0).getColumns();
+
+        assertEquals("2024-01-15", columns.get("a"));
+        assertEquals("2024-01-15", columns.get("b"));
+        assertEquals("2024-01-15", columns.get("c"));
+        assertEquals("2024-02-30", columns.get("d"));
+        assertEquals("2024-1-15", columns.get("e"));
+    }
+
+    @Test
+    void readsEmptyAndMissingFieldsAsNull() {
+        List<ExcelRowData> rows = parse("a,b,c\n1,,3\n4\n");
+
+        assertNull(rows.get(0).getColumns().get("b"));
+        assertEquals(4L, rows.get(1).getColumns().get("a"));
+        assertNull(rows.get(1).getColumns().get("b"));
+        assertNull(rows.get(1).getColumns().get("c"));
+    }
+
+    @Test
+    void handlesQuotedFields() {
+        Map<String, Object> columns = parse("a,b,c,d\n\"x, y\",\"say \"\"hi\"\"\",\"line1\nline2\",\"\"\n")
+                .get(0).getColumns();
+
+        assertEquals("x, y", columns.get("a"));
+        assertEquals("say \"hi\"", columns.get("b"));
+        assertEquals("line1\nline2", columns.get("c"));
+        assertNull(columns.get("d"));
+    }
+
+    @Test
+    void typesQuotedValues() {
+        Map<String, Object> columns = parse("a,b\n\"42\",\"true\"\n").get(0).getColumns();
+
+        assertEquals(42L, columns.get("a"));
+        assertEquals(Boolean.TRUE, columns.get("b"));
+    }
+
+    @Test
+    void rejectsUnterminatedQuote() {
+        assertThrows(InvalidFileFormatException.class, () -> parse("a,b\n\"open,1\n"));
+    }
+
+    @Test
+    void handlesCrlfAndBareCr() {
+        List<ExcelRowData> rows = parse("a,b\r\n1,2\r\n3,4\r5,6");
+
+        assertEquals(3, rows.size());
+        assertEquals(2L, rows.get(0).getColumns().get("b"));
+        assertEquals(6L, rows.get(2).getColumns().get("b"));
+    }
+
+    @Test
+    void skipsBlankLines() {
+        List<ExcelRowData> rows = parse("a,b\n\n1,2\n\r\n3,4\n\n");
+
+        assertEquals(2, rows.size());
+        assertEquals(2, rows.get(1).getRowNumber());
+    }
+
+    @Test
+    void keepsLastRecordWithoutTrailingNewline() {
+        List<ExcelRowData> rows = parse("a,b\n1,2\n3,");
+
+        assertEquals(2, rows.size());
+        assertEquals(3L, rows.get(1).getColumns().get("a"));
+        assertNull(rows.get(1).getColumns().get("b"));
+    }
+
+    @Test
+    void skipsUtf8ByteOrderMark() {
+        List<ExcelRowData> rows = parse("﻿Name,Price\nCafé,2.5\n");
+
+        assertEquals(List.of("Name", "Price"), new ArrayList<>(rows.get(0).getColumns().keySet()));
+        assertEquals("Café", rows.get(0).getColumns().get("Name"));
+    }
+
+    @Test
+    void returnsNoRowsForEmptyInput() {
+        assertTrue(parse("").isEmpty());
+        assertTrue(parse("a,b\n").isEmpty());
+    }
+
+    @Test
+    void reportsHeadersBeforeRows() {
+        List<Object> events = new ArrayList<>();
+
+        read("\n\nName,Amount\nPen,3\n", events);
+
+        assertEquals(List.of("Name", "Amount"), events.get(0));
+        assertInstanceOf(ExcelRowData.class, events.get(1));
+        assertEquals(2, events.size());
+    }
+
+    @Test
+    void reportsHeadersWithoutRows() {
+        List<Object> headerOnly = new ArrayList<>();
+        read("Name,Amount", headerOnly);
+        assertEquals(List.of(List.of("Name", "Amount")), headerOnly);
+
+        List<Object> empty = new ArrayList<>();
+        read("", empty);
+        assertEquals(List.of(List.of()), empty);
+    }
+
+    @Test
+    void handlesFieldsLongerThanTheInitialBuffer() {
+        char[] chars = new char[10_000];
+        Arrays.fill(chars, 'x');
+        String longValue = new String(chars);
+
+        Map<String, Object> columns = parse("a,b\n" + longValue + ",1\n").get(0).getColumns();
+
+        assertEquals(longValue, columns.get("a"));
+        assertEquals(1L, columns.get("b"));
+    }
+
+    @Test
+    void sameResultWhenInputArrivesOneByteAtATime() {
+        String csv = "﻿a,b,c\r\n\"q,\"\"x\"\"\",2024-01-15,7\r\n1.5,,true\r\n";
+        byte[] bytes = csv.getBytes(StandardCharsets.UTF_8);
+
+        List<ExcelRowData> expected = CsvParserUtil.parseCsv(new ByteArrayInputStream(bytes));
+        List<ExcelRowData> actual = CsvParserUtil.parseCsv(new OneByteInputStream(new ByteArrayInputStream(bytes)));
+
+        assertEquals(expected, actual);
+        assertEquals("q,\"x\"", actual.get(0).getColumns().get("a"));
+    }
+
+    @Test
+    void readsInputLargerThanTheReadBuffer() {
+        StringBuilder csv = new StringBuilder("id,name\n");
+        for (int i = 1; i <= 20_000; i++) {
+            csv.append(i).append(",\"name ").append(i).append("\"\r\n");
+        }
+
+        List<ExcelRowData> rows = parse(csv.toString());
+
+        assertEquals(20_000, rows.size());
+        assertEquals(20_000L, rows.get(19_999).getColumns().get("id"));
+        assertEquals("name 20000", rows.get(19_999).getColumns().get("name"));
+    }
+
+    private static void read(String csv, List<Object> events) {
+        CsvParserUtil.readCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), events::add, events::add);
+    }
+
+    private static List<ExcelRowData> parse(String csv) {
+        return CsvParserUtil.parseCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static final class OneByteInputStream extends FilterInputStream {
+
+        private OneByteInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return super.read(b, off, Math.min(len, 1));
+        }
+    }
+}
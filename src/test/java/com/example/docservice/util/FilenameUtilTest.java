@@ -0,0 +1,34 @@
+package com.example.docservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilenameUtilTest {
+
+    @Test
+    void recognizesSupportedExtensionsInAnyCase() {
+        assertTrue(FilenameUtil.isSupported("data.xlsx"));
+        assertTrue(FilenameUtil.isSupported("DATA.XLS"));
+        assertTrue(FilenameUtil.isSupported("data.Csv"));
+        assertFalse(FilenameUtil.isSupported("data.xlsm"));
+        assertFalse(FilenameUtil.isSupported("data.csv.txt"));
+        assertFalse(FilenameUtil.isSupported(null));
+    }
+
+    @Test
+    void separatesWorkbooksFromCsv() {
+        assertTrue(FilenameUtil.isWorkbook("data.xls"));
+        assertFalse(FilenameUtil.isWorkbook("data.csv"));
+        assertTrue(FilenameUtil.isCsv("data.CSV"));
+        assertFalse(FilenameUtil.isCsv("data.xlsx"));
+    }
+
+    @Test
+    void derivesPdfFilename() {
+        assertEquals("sales.pdf", FilenameUtil.toPdfFilename("sales.xlsx"));
+        assertEquals("Sales.pdf", FilenameUtil.toPdfFilename("Sales.CSV"));
+        assertEquals("archive.xlsx.pdf", FilenameUtil.toPdfFilename("archive.xlsx.xls"));
+        assertEquals("document.pdf", FilenameUtil.toPdfFilename(null));
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.docservice.util;
+
+import com.example.docservice.dto.*;
+import com.example.docservice.exception.InvalidQueryException;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RowQueryProcessorTest {
+
+    private static final int MAX_GROUPS = 100;
+    private static final int MAX_LIMIT = 1000;
+
+    @Test
+    void passesRowsThroughWithoutQuery() {
+        List<ExcelRowData> rows = sampleRows();
+
+        List<ExcelRowData> result = run(null, rows);
+
+        assertEquals(rows, result);
+    }
+
+    @Test
+    void appliesAllFilters() {
+        DataQuery query = new DataQuery();
+        query.setFilters(List.of(
+                new QueryFilter("Region", QueryFilter.Operator.EQ, "West"),
+                new QueryFilter("Amount", QueryFilter.Operator.GTE, "20")
+        ));
+
+        List<ExcelRowData> result = run(query, sampleRows());
+
+        assertEquals(List.of(3), rowNumbers(result));
+    }
+
+    @Test
+    void filtersNullsAndText() {
+        DataQuery isNull = new DataQuery();
+        isNull.setFilters(List.of(new QueryFilter("Product", QueryFilter.Operator.IS_NULL, null)));
+        assertEquals(List.of(4), rowNumbers(run(isNull, sampleRows())));
+
+        DataQuery notEqual = new DataQuery();
+        notEqual.setFilters(List.of(new QueryFilter("Product", QueryFilter.Operator.NE, "Pen")));
+        assertEquals(List.of(2, 3, 4), rowNumbers(run(notEqual, sampleRows())));
+
+        DataQuery contains = new DataQuery();
+        contains.setFilters(List.of(new QueryFilter("Product", QueryFilter.Operator.CONTAINS, "PE")));
+        assertEquals(List.of(1, 3), rowNumbers(run(contains, sampleRows())));
+    }
+
+    @Test
+    void groupsAndAggregates() {
+        DataQuery query = new DataQuery();
+        query.setGroupBy(List.of("Region"));
+        query.setAggregates(List.of(
+                new QueryAggregate(QueryAggregate.Function.SUM, "Amount", null),
+                new QueryAggregate(QueryAggregate.Function.COUNT, null, null),
+                new QueryAggregate(QueryAggregate.Function.AVG, "Amount", "average"),
+                new QueryAggregate(QueryAggregate.Function.MAX, "Amount", null)
+        ));
+
+        List<ExcelRowData> result = run(query, sampleRows());
+
+        assertEquals(2, result.size());
+        Map<String, Object> west = result.get(0).getColumns();
+        assertEquals("West", west.get("Region"));
+        assertEquals(40L, west.get("sum(Amount)"));
+        assertEquals(2L, west.get("count(*)"));
+        assertEquals(20.0, west.get("average"));
+        assertEquals(30L, west.get("max(Amount)"));
+    }
+
+    @Test
+    void aggregatesWithoutMatchesStillReturnOneRow() {
+        DataQuery query = new DataQuery();
+        query.setFilters(List.of(new QueryFilter("Region", QueryFilter.Operator.EQ, "North")));
+        query.setAggregates(List.of(new QueryAggregate(QueryAggregate.Function.COUNT, null, null)));
+
+        List<ExcelRowData> result = run(query, sampleRows());
+
+        assertEquals(1, result.size());
+        assertEquals(0L, result.get(0).getColumns().get("count(*)"));
+    }
+
+    @Test
+    void sumAndAverageWithoutNumericValuesAreNull() {
+        DataQuery query = new DataQuery();
+        query.setGroupBy(List.of("Region"));
+        query.setAggregates(List.of(
+                new QueryAggregate(QueryAggregate.Function.SUM, "Product", null),
+                new QueryAggregate(QueryAggregate.Function.AVG, "Product", null),
+                new QueryAggregate(QueryAggregate.Function.SUM, "Amount", null)
+        ));
+
+        Map<String, Object> east = run(query, sampleRows()).get(1).getColumns();
+
+        assertNull(east.get("sum(Product)"));
+        assertNull(east.get("avg(Product)"));
+        assertEquals(40L, east.get("sum(Amount)"));
+
+        DataQuery noMatches = new DataQuery();
+        noMatches.setFilters(List.of(new QueryFilter("Region", QueryFilter.Operator.EQ, "North")));
+        noMatches.setAggregates(List.of(new QueryAggregate(QueryAggregate.Function.SUM, "Amount", null)));
+
+        assertNull(run(noMatches, sampleRows()).get(0).getColumns().get("sum(Amount)"));
+    }
+
+    @Test
+    void keepsTopRowsInSortOrder() {
+        DataQuery query = new DataQuery();
+        query.setSort(List.of(new QuerySort("Amount", QuerySort.Direction.DESC)));
+        query.setLimit(2);
+
+        List<ExcelRowData> result = run(query, sampleRows());
+
+        assertEquals(List.of(3, 4), rowNumbers(result));
+    }
+
+    @Test
+    void limitWithoutSortKeepsFirstRows() {
+        DataQuery query = new DataQuery();
+        query.setLimit(2);
+
+        assertEquals(List.of(1, 2), rowNumbers(run(query, sampleRows())));
+    }
+
+    @Test
+    void largeLimitDoesNotPreallocate() {
+        DataQuery query = new DataQuery();
+        query.setSort(List.of(new QuerySort("Amount", QuerySort.Direction.ASC)));
+        query.setLimit(MAX_LIMIT);
+
+        List<ExcelRowData> result = run(query, sampleRows());
+
+        assertEquals(List.of(1, 2, 4, 3), rowNumbers(result));
+    }
+
+    @Test
+    void rejectsLimitAboveMaximum() {
+        DataQuery query = new DataQuery();
+        query.setSort(List.of(new QuerySort("Amount", QuerySort.Direction.ASC)));
+        query.setLimit(Integer.MAX_VALUE);
+
+        assertThrows(InvalidQueryException.class, () -> new RowQueryProcessor(query, MAX_GROUPS, MAX_LIMIT));
+    }
+
+    @Test
+    void rejectsLimitBelowOne() {
+        DataQuery query = new DataQuery();
+        query.setLimit(0);
+
+        assertThrows(InvalidQueryException.class, () -> new RowQueryProcessor(query, MAX_GROUPS, MAX_LIMIT));
+    }
+
+    @Test
+    void rejectsUnknownColumns() {
+        DataQuery query = new DataQuery();
+        query.setFilters(List.of(new QueryFilter("Missing", QueryFilter.Operator.NOT_NULL, null)));
+
+        assertThrows(InvalidQueryException.class, () -> run(query, sampleRows()));
+    }
+
+    @Test
+    void rejectsUnknownColumnsFromHeadersWithoutRows() {
+        DataQuery query = new DataQuery();
+        query.setFilters(List.of(new QueryFilter("Missing", QueryFilter.Operator.NOT_NULL, null)));
+        RowQueryProcessor processor = new RowQueryProcessor(query, MAX_GROUPS, MAX_LIMIT);
+
+        assertThrows(InvalidQueryException.class, () -> processor.acceptHeaders(List.of("Region", "Amount")));
+    }
+
+    @Test
+    void validatesAgainstHeadersRatherThanFirstRow() {
+        DataQuery query = new DataQuery();
+        query.setFilters(List.of(new QueryFilter("Product", QueryFilter.Operator.IS_NULL, null)));
+        RowQueryProcessor processor = new RowQueryProcessor(query, MAX_GROUPS, MAX_LIMIT);
+
+        processor.acceptHeaders(List.of("Region", "Product"));
+        processor.accept(row(1, Map.of("Region", "West")));
+
+        assertEquals(List.of(1), rowNumbers(processor.getResults()));
+    }
+
+    @Test
+    void rejectsTooManyGroups() {
+        DataQuery query = new DataQuery();
+        query.setGroupBy(List.of("Id"));
+        RowQueryProcessor processor = new RowQueryProcessor(query, 2, MAX_LIMIT);
+
+        processor.accept(row(1, Map.of("Id", 1L)));
+        processor.accept(row(2, Map.of("Id", 2L)));
+
+        assertThrows(InvalidQueryException.class, () -> processor.accept(row(3, Map.of("Id", 3L))));
+    }
+
+    @Test
+    void sortsMixedColumnsByTypeThenValue() {
+        List<ExcelRowData> rows = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 1; i <= 5000; i++) {
+            Object value = switch (random.nextInt(4)) {
+                case 0 -> (long) random.nextInt(100);
+                case 1 -> random.nextInt(1000) / 10.0;
+                case 2 -> random.nextInt(100) + "z";
+                default -> random.nextBoolean();
+            };
+            rows.add(row(i, Map.of("Value", value)));
+        }
+        DataQuery query = new DataQuery();
+        query.setSort(List.of(new QuerySort("Value", QuerySort.Direction.ASC)));
+
+        List<ExcelRowData> result = run(query, rows);
+
+        assertEquals(rows.size(), result.size());
+        int previousRank = 0;
+        for (ExcelRowData row : result) {
+            Object value = row.getColumns().get("Value");
+            int rank = value instanceof Number ? 0 : value instanceof Boolean ? 1 : 2;
+            assertTrue(rank >= previousRank, "numbers, then booleans, then text");
+            previousRank = rank;
+        }
+    }
+
+    @Test
+    void minAndMaxFollowTypeOrder() {
+        List<ExcelRowData> rows = List.of(
+                row(1, Map.of("Value", "1z")),
+                row(2, Map.of("Value", 10L)),
+                row(3, Map.of("Value", 9.5)),
+                row(4, Map.of("Value", true))
+        );
+        DataQuery query = new DataQuery();
+        query.setAggregates(List.of(
+                new QueryAggregate(QueryAggregate.Function.MIN, "Value", null),
+                new QueryAggregate(QueryAggregate.Function.MAX, "Value", null)
+        ));
+
+        Map<String, Object> result = run(query, rows).get(0).getColumns();
+
+        assertEquals(9.5, result.get("min(Value)"));
+        assertEquals("1z", result.get("max(Value)"));
+    }
+
+    @Test
+    void sumBeyondLongRangeStaysDouble() {
+        List<ExcelRowData> rows = List.of(
+                row(1, Map.of("Value", 1e19)),
+                row(2, Map.of("Value", 1e19))
+        );
+        DataQuery query = new DataQuery();
+        query.setAggregates(List.of(new QueryAggregate(QueryAggregate.Function.SUM, "Value", null)));
+
+        assertEquals(2e19, run(query, rows).get(0).getColumns().get("sum(Value)"));
+    }
+
+    private static List<ExcelRowData> run(DataQuery query, List<ExcelRowData> rows) {
+        RowQueryProcessor processor = new RowQueryProcessor(query, MAX_GROUPS, MAX_LIMIT);
+        rows.forEach(processor);
+        return processor.getResults();
+    }
+
+    private static List<ExcelRowData> sampleRows() {
+        return List.of(
+                row(1, columns("West", "Pen", 10L)),
+                row(2, columns("East", "Ink", 15L)),
+                row(3, columns("West", "Pencil", 30L)),
+                row(4, columns("East", null, 25L))
+        );
+    }
+
+    private static Map<String, Object> columns(String region, String product, Long amount) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        columns.put("Region", region);
+        columns.put("Product", product);
+        columns.put("Amount", amount);
+        return columns;
+    }
+
+    private static ExcelRowData row(int rowNumber, Map<String, Object> columns) {
+        return new ExcelRowData(rowNumber, columns);
+    }
+
+    private static List<Integer> rowNumbers(List<ExcelRowData> rows) {
+        return rows.stream().map(ExcelRowData::getRowNumber).toList();
+    }
+}
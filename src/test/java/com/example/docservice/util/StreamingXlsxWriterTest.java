@@ -0,0 +1,150 @@
+package com.example.docservice.util;
+
+import com.example.docservice.dto.ExcelRowData;
+import com.example.docservice.exception.InvalidFileFormatException;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.PaneInformation;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingXlsxWriterTest {
+
+    @Test
+    void writesHeaderRowAndFreezesIt() throws IOException {
+        try (Workbook workbook = write(null, 10, row(1, "Name", "Pen", "Amount", 3L))) {
+            Sheet sheet = workbook.getSheetAt(0);
+            Row header = sheet.getRow(0);
+
+            assertEquals("Name", header.getCell(0).getStringCellValue());
+            assertEquals("Amount", header.getCell(1).getStringCellValue());
+            assertTrue(workbook.getFontAt(header.getCell(0).getCellStyle().getFontIndex()).getBold());
+
+            PaneInformation pane = sheet.getPaneInformation();
+            assertTrue(pane.isFreezePane());
+            assertEquals(1, pane.getHorizontalSplitPosition());
+            assertEquals(0, pane.getVerticalSplitPosition());
+        }
+    }
+
+    @Test
+    void writesTypedCells() throws IOException {
+        ExcelRowData typed = row(1,
+                "Text", "Pen",
+                "Whole", 42L,
+                "Decimal", 2.5,
+                "Active", true,
+                "Date", "2024-01-15",
+                "NotADate", "2024-02-30",
+                "Empty", null);
+
+        try (Workbook workbook = write(null, 10, typed)) {
+            Row row = workbook.getSheetAt(0).getRow(1);
+
+            assertEquals(CellType.STRING, row.getCell(0).getCellType());
+            assertEquals("Pen", row.getCell(0).getStringCellValue());
+            assertEquals(CellType.NUMERIC, row.getCell(1).getCellType());
+            assertEquals(42.0, row.getCell(1).getNumericCellValue());
+            assertEquals(2.5, row.getCell(2).getNumericCellValue());
+            assertEquals(CellType.BOOLEAN, row.getCell(3).getCellType());
+            assertTrue(row.getCell(3).getBooleanCellValue());
+
+            Cell date = row.getCell(4);
+            assertEquals(CellType.NUMERIC, date.getCellType());
+            assertTrue(DateUtil.isCellDateFormatted(date));
+            assertEquals(LocalDate.of(2024, 1, 15), date.getLocalDateTimeCellValue().toLocalDate());
+
+            assertEquals(CellType.STRING, row.getCell(5).getCellType());
+            assertNull(row.getCell(6));
+        }
+    }
+
+    @Test
+    void keepsEveryRowBeyondTheWindow() throws IOException {
+        ExcelRowData[] rows = new ExcelRowData[1_000];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = row(i + 1, "Id", (long) i + 1, "Name", "row " + (i + 1));
+        }
+
+        try (Workbook workbook = write(null, 10, rows)) {
+            Sheet sheet = workbook.getSheetAt(0);
+
+            assertEquals(1_000, sheet.getLastRowNum());
+            assertEquals(1_000.0, sheet.getRow(1_000).getCell(0).getNumericCellValue());
+            assertEquals("row 1", sheet.getRow(1).getCell(1).getStringCellValue());
+        }
+    }
+
+    @Test
+    void matchesLaterRowsByColumnName() throws IOException {
+        try (Workbook workbook = write(null, 10,
+                row(1, "A", 1L, "B", 2L),
+                row(2, "B", 20L),
+                row(3, "B", 30L, "A", 10L))) {
+            Sheet sheet = workbook.getSheetAt(0);
+
+            assertNull(sheet.getRow(2).getCell(0));
+            assertEquals(20.0, sheet.getRow(2).getCell(1).getNumericCellValue());
+            assertEquals(10.0, sheet.getRow(3).getCell(0).getNumericCellValue());
+            assertEquals(30.0, sheet.getRow(3).getCell(1).getNumericCellValue());
+        }
+    }
+
+    @Test
+    void rejectsColumnsMissingFromTheHeader() throws IOException {
+        try (StreamingXlsxWriter writer = new StreamingXlsxWriter("Sheet1", 10, false)) {
+            writer.writeRow(row(1, "A", 1L));
+
+            InvalidFileFormatException exception = assertThrows(InvalidFileFormatException.class,
+                    () -> writer.writeRow(row(2, "A", 2L, "B", 3L)));
+            assertTrue(exception.getMessage().contains("'B'"));
+        }
+    }
+
+    @Test
+    void usesExplicitColumnsForTheHeader() throws IOException {
+        try (Workbook workbook = write(List.of("A", "B", "C"), 10,
+                row(1, "A", 1L),
+                row(2, "C", "late"))) {
+            Sheet sheet = workbook.getSheetAt(0);
+
+            assertEquals("C", sheet.getRow(0).getCell(2).getStringCellValue());
+            assertEquals(1.0, sheet.getRow(1).getCell(0).getNumericCellValue());
+            assertEquals("late", sheet.getRow(2).getCell(2).getStringCellValue());
+        }
+    }
+
+    @Test
+    void rejectsDuplicateExplicitColumns() {
+        assertThrows(InvalidFileFormatException.class,
+                () -> new StreamingXlsxWriter("Sheet1", List.of("A", "A"), 10, false).close());
+    }
+
+    private static Workbook write(List<String> columns, int windowSize, ExcelRowData... rows) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (StreamingXlsxWriter writer = new StreamingXlsxWriter("Sheet1", columns, windowSize, false)) {
+            for (ExcelRowData row : rows) {
+                writer.writeRow(row);
+            }
+            writer.writeTo(outputStream);
+        }
+        return new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()));
+    }
+
+    private static ExcelRowData row(int rowNumber, Object... namesAndValues) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            columns.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return new ExcelRowData(rowNumber, columns);
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.docservice.util;
+
+import com.example.docservice.dto.SheetMetadata;
+import com.example.docservice.exception.InvalidFileFormatException;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkbookInspectorUtilTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void inspectsXlsxSheets() throws IOException {
+        Path file = write("data.xlsx", new XSSFWorkbook(), workbook -> {
+            Sheet sales = workbook.createSheet("Sales");
+            headerRow(sales, 0, "Region", "Amount");
+            dataRows(sales, 1, 10);
+            Sheet other = workbook.createSheet("Other");
+            headerRow(other, 0, "Id");
+            dataRows(other, 1, 3);
+        });
+
+        List<SheetMetadata> sheets = WorkbookInspectorUtil.inspectWorkbook(file, "data.xlsx");
+
+        assertEquals(2, sheets.size());
+        assertEquals(new SheetMetadata("Sales", "A1:B11", List.of("Region", "Amount"), 10), sheets.get(0));
+        assertEquals(new SheetMetadata("Other", "A1:B4", List.of("Id"), 3), sheets.get(1));
+    }
+
+    @Test
+    void resolvesSharedStringsAddedAfterTheData() throws IOException {
+        Path file = write("late.xlsx", new XSSFWorkbook(), workbook -> {
+            Sheet sheet = workbook.createSheet("Late");
+            // Data strings go into the shared strings table first, so the header indexes are the highest ones
+            for (int i = 1; i <= 50; i++) {
+                sheet.createRow(i).createCell(0).setCellValue("value " + i);
+            }
+            headerRow(sheet, 0, "Name", "Notes");
+        });
+
+        SheetMetadata sheet = WorkbookInspectorUtil.inspectWorkbook(file, "late.xlsx").get(0);
+
+        assertEquals(List.of("Name", "Notes"), sheet.getHeaders());
+    }
+
+    @Test
+    void readsInlineStringsAndTypedHeaderCells() throws IOException {
+        // SXSSF writes inline strings instead of a shared strings table
+        Path file = write("inline.xlsx", new SXSSFWorkbook(), workbook -> {
+            Row header = workbook.createSheet("Inline").createRow(0);
+            header.createCell(0).setCellValue("Name");
+            header.createCell(1).setCellValue(2024);
+            header.createCell(2).setCellValue(true);
+            header.createCell(4).setCellValue("");
+        });
+
+        SheetMetadata sheet = WorkbookInspectorUtil.inspectWorkbook(file, "inline.xlsx").get(0);
+
+        assertEquals(List.of("Name", "2024.0", "true", "Column_4"), sheet.getHeaders());
+    }
+
+    @Test
+    void usesFirstRowWhenHeaderDoesNotStartAtRowOne() throws IOException {
+        Path xlsx = write("offset.xlsx", new XSSFWorkbook(), workbook -> {
+            Sheet sheet = workbook.createSheet("Offset");
+            headerRow(sheet, 2, "Name", "Amount");
+            dataRows(sheet, 3, 5);
+        });
+        Path xls = write("offset.xls", new HSSFWorkbook(), workbook -> {
+            Sheet sheet = workbook.createSheet("Offset");
+            headerRow(sheet, 2, "Name", "Amount");
+            dataRows(sheet, 3, 5);
+        });
+
+        SheetMetadata xlsxSheet = WorkbookInspectorUtil.inspectWorkbook(xlsx, "offset.xlsx").get(0);
+        SheetMetadata xlsSheet = WorkbookInspectorUtil.inspectWorkbook(xls, "offset.xls").get(0);
+
+        // Dimensions are reported as stored, and POI's HSSF writer always stores the first row as 0
+        assertEquals(new SheetMetadata("Offset", "A3:B8", List.of("Name", "Amount"), 5), xlsxSheet);
+        assertEquals(new SheetMetadata("Offset", "A1:B8", List.of("Name", "Amount"), 5), xlsSheet);
+    }
+
+    @Test
+    void handlesSheetsWithoutRows() throws IOException {
+        Path xlsx = write("empty.xlsx", new XSSFWorkbook(), workbook -> {
+            workbook.createSheet("Empty");
+            headerRow(workbook.createSheet("Filled"), 0, "Name");
+        });
+        Path xls = write("empty.xls", new HSSFWorkbook(), workbook -> {
+            workbook.createSheet("Empty");
+            headerRow(workbook.createSheet("Filled"), 0, "Name");
+        });
+
+        for (List<SheetMetadata> sheets : List.of(
+                WorkbookInspectorUtil.inspectWorkbook(xlsx, "empty.xlsx"),
+                WorkbookInspectorUtil.inspectWorkbook(xls, "empty.xls"))) {
+            assertEquals(2, sheets.size());
+            assertEquals("Empty", sheets.get(0).getName());
+            assertEquals(List.of(), sheets.get(0).getHeaders());
+            assertEquals(0, sheets.get(0).getApproximateRowCount());
+            assertEquals(List.of("Name"), sheets.get(1).getHeaders());
+        }
+    }
+
+    @Test
+    void inspectsEverySheetOfAnXls() throws IOException {
+        Path file = write("data.xls", new HSSFWorkbook(), workbook -> {
+            for (int i = 1; i <= 3; i++) {
+                Sheet sheet = workbook.createSheet("Sheet " + i);
+                headerRow(sheet, 0, "Name", "Amount");
+                dataRows(sheet, 1, i * 10);
+            }
+        });
+
+        List<SheetMetadata> sheets = WorkbookInspectorUtil.inspectWorkbook(file, "data.xls");
+
+        assertEquals(3, sheets.size());
+        for (int i = 0; i < 3; i++) {
+            SheetMetadata sheet = sheets.get(i);
+            assertEquals("Sheet " + (i + 1), sheet.getName());
+            assertEquals("A1:B" + ((i + 1) * 10 + 1), sheet.getDimension());
+            assertEquals(List.of("Name", "Amount"), sheet.getHeaders());
+            assertEquals((i + 1) * 10, sheet.getApproximateRowCount());
+        }
+    }
+
+    @Test
+    void readsBlankAndFormulaHeaderCellsInXls() throws IOException {
+        Path file = write("formula.xls", new HSSFWorkbook(), workbook -> {
+            Sheet sheet = workbook.createSheet("Formula");
+            CellStyle style = workbook.createCellStyle();
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Name");
+            // Consecutive styled blank cells are stored as a single MULBLANK record
+            for (int col = 1; col <= 3; col++) {
+                header.createCell(col).setCellStyle(style);
+            }
+            header.createCell(4).setCellFormula("\"To\"&\"tal\"");
+            header.createCell(5).setCellValue(7);
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            dataRows(sheet, 1, 2);
+        });
+
+        SheetMetadata sheet = WorkbookInspectorUtil.inspectWorkbook(file, "formula.xls").get(0);
+
+        assertEquals(List.of("Name", "Column_1", "Column_2", "Column_3", "Total", "7.0"), sheet.getHeaders());
+        assertEquals(2, sheet.getApproximateRowCount());
+    }
+
+    @Test
+    void rejectsContentThatDoesNotMatchTheExtension() throws IOException {
+        Path xls = write("data.xls", new HSSFWorkbook(), workbook -> headerRow(workbook.createSheet("S"), 0, "A"));
+
+        assertThrows(InvalidFileFormatException.class, () -> WorkbookInspectorUtil.inspectWorkbook(xls, "data.xlsx"));
+    }
+
+    @Test
+    void rejectsCorruptWorkbooks() throws IOException {
+        byte[] zipHeaderOnly = new byte[2048];
+        System.arraycopy(new byte[]{'P', 'K', 3, 4}, 0, zipHeaderOnly, 0, 4);
+        Path zip = Files.write(tempDir.resolve("zeros.xlsx"), zipHeaderOnly);
+
+        Path valid = write("valid.xls", new HSSFWorkbook(), workbook -> headerRow(workbook.createSheet("S"), 0, "A"));
+        byte[] truncated = Arrays.copyOf(Files.readAllBytes(valid), 600);
+        Path ole2 = Files.write(tempDir.resolve("truncated.xls"), truncated);
+
+        assertThrows(InvalidFileFormatException.class, () -> WorkbookInspectorUtil.inspectWorkbook(zip, "zeros.xlsx"));
+        assertThrows(InvalidFileFormatException.class, () -> WorkbookInspectorUtil.inspectWorkbook(ole2, "truncated.xls"));
+    }
+
+    private Path write(String filename, Workbook workbook, WorkbookBuilder builder) throws IOException {
+        Path file = tempDir.resolve(filename);
+        try (workbook; OutputStream outputStream = Files.newOutputStream(file)) {
+            builder.build(workbook);
+            workbook.write(outputStream);
+        }
+        return file;
+    }
+
+    private static void headerRow(Sheet sheet, int rowIndex, String... headers) {
+        Row row = sheet.createRow(rowIndex);
+        for (int i = 0; i < headers.length; i++) {
+            row.createCell(i).setCellValue(headers[i]);
+        }
+    }
+
+    private static void dataRows(Sheet sheet, int firstRow, int count) {
+        for (int i = 0; i < count; i++) {
+            Row row = sheet.createRow(firstRow + i);
+            row.createCell(0).setCellValue("row " + i);
+            row.createCell(1).setCellValue(i);
+        }
+    }
+
+    @FunctionalInterface
+    private interface WorkbookBuilder {
+        void build(Workbook workbook);
+    }
+}